@@ -17,6 +17,7 @@ package de.ks.standbein.menu;
 
 import com.google.inject.Injector;
 import de.ks.standbein.i18n.Localized;
+import de.ks.standbein.i18n.LocalizedText;
 import de.ks.standbein.imagecache.Images;
 import javafx.collections.ObservableList;
 import javafx.scene.control.Menu;
@@ -93,7 +94,7 @@ public class MenuBarCreator extends AbstractMenuCreator<MenuBar, MenuBarCreator>
     }
     menuItem.setId(entry.getIconPath());
     if (entry.isLocalized()) {
-      menuItem.setText(localized.get(entry.getName()));
+      follow(menuItem, entry.getName());
     } else {
       menuItem.setText(entry.getName());
     }
@@ -111,10 +112,16 @@ public class MenuBarCreator extends AbstractMenuCreator<MenuBar, MenuBarCreator>
   private void createMenu(String menuPath, Map<String, Menu> menus) {
     Menu menu = new Menu();
     menu.setId(menuPath);
-    menu.setText(localized.get(menuPath.toLowerCase(Locale.ROOT).substring(1).replace("/", ".")));
+    follow(menu, menuPath.toLowerCase(Locale.ROOT).substring(1).replace("/", "."));
     menus.put(menuPath, menu);
   }
 
+  private void follow(MenuItem item, String key) {
+    LocalizedText text = localized.getLocalizedText(MenuBarCreator.class, key);
+    item.setText(text.getText());
+    text.follow(item.textProperty());
+  }
+
   private List<Menu> createMenuTreeStructure(List<String> menuNames, Map<String, Menu> menus) {
     List<String> rootMenuPaths = new ArrayList<>();
 
@@ -15,6 +15,7 @@
  */
 package de.ks.standbein.table;
 
+import de.ks.standbein.i18n.LocalizedText;
 import de.ks.standbein.reflection.PropertyPath;
 import javafx.beans.value.ObservableValue;
 import javafx.beans.value.WritableValue;
@@ -33,6 +34,7 @@ public class TableColumnBuilder<TableType> {
   protected Supplier<? extends ObservableValue<?>> observableValueSupplier;
   protected Integer width;
   protected String name;
+  protected LocalizedText localizedName;
   protected Class<TableType> tableClass;
   protected PropertyPath propertyPath;
   protected Consumer<TableColumn<TableType, ?>> tablePostProcessor;
@@ -55,6 +57,16 @@ public class TableColumnBuilder<TableType> {
 
   public TableColumnBuilder<TableType> setName(String name) {
     this.name = name;
+    this.localizedName = null;
+    return this;
+  }
+
+  /**
+   * Uses the current translation as name, built columns follow locale changes.
+   */
+  public TableColumnBuilder<TableType> setLocalizedName(LocalizedText name) {
+    this.name = name.getText();
+    this.localizedName = name;
     return this;
   }
 
@@ -81,6 +93,9 @@ public class TableColumnBuilder<TableType> {
   @SuppressWarnings("unchecked")
   public TableColumn<TableType, ?> buildTableColumn() {
     TableColumn<TableType, ?> tableColumn = new TableColumn<>(name);
+    if (localizedName != null) {
+      localizedName.follow(tableColumn.textProperty());
+    }
     tableColumn.setCellValueFactory(param -> {
       TableType item = param.getValue();
       Object value = null;
@@ -107,6 +122,9 @@ public class TableColumnBuilder<TableType> {
   @SuppressWarnings("unchecked")
   public TreeTableColumn<TableType, ?> buildTreeTableColumn() {
     TreeTableColumn<TableType, ?> tableColumn = new TreeTableColumn<>(name);
+    if (localizedName != null) {
+      localizedName.follow(tableColumn.textProperty());
+    }
     tableColumn.setCellValueFactory(param -> {
       TableType item = param.getValue().getValue();
       Object value = null;
@@ -147,6 +165,10 @@ public class TableColumnBuilder<TableType> {
     return name;
   }
 
+  public LocalizedText getLocalizedName() {
+    return localizedName;
+  }
+
   public Class<TableType> getTableClass() {
     return tableClass;
   }
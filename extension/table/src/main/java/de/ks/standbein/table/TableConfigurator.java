@@ -18,6 +18,7 @@ package de.ks.standbein.table;
 import com.google.common.primitives.Primitives;
 import de.ks.standbein.i18n.LocalizationModule;
 import de.ks.standbein.i18n.Localized;
+import de.ks.standbein.i18n.LocalizedText;
 import de.ks.standbein.reflection.PropertyPath;
 import javafx.beans.property.*;
 import javafx.beans.value.ObservableValue;
@@ -129,12 +130,12 @@ public class TableConfigurator<E> {
 
   private <V, O extends ObservableValue<V> & WritableValue<V>> TableColumnBuilder<E> add(Class<E> clazz, Function<E, ?> function, Supplier<O> valueSupplier) {
     PropertyPath path = PropertyPath.ofTypeSafe(clazz, function);
-    String name = localized.get(path.toLocalizationPath());
+    LocalizedText name = localized.getLocalizedText(TableConfigurator.class, path.toLocalizationPath());
 
     TableColumnBuilder<E> builder = new TableColumnBuilder<>();
     builder.setFunction(function);
     builder.setValueSupplier(valueSupplier);
-    builder.setName(name);
+    builder.setLocalizedName(name);
     builder.setTableClass(clazz);
     builder.setPropertyPath(path);
     builders.add(builder);
@@ -0,0 +1,103 @@
+/*
+ * Copyright [2014] [Christian Loehnert, krampenschiesser@gmail.com]
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.ks.standbein.activity.context;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Overhead of calling an activity scoped bean through its proxy compared to a direct call and to resolving the bean.
+ * lockedLookup replays the previous lookup (activity map, read lock, key map) as baseline for slotLookup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ActivityScopeBenchmark {
+  private ActivityContext context;
+  private Injector injector;
+  private ScopedBean proxy;
+  private ScopedBean instance;
+  private final Key<ScopedBean> key = Key.get(ScopedBean.class);
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock(true);
+  private int slot;
+
+  @Setup
+  public void setUp() {
+    context = new ActivityContext();
+    injector = Guice.createInjector(new AbstractModule() {
+      @Override
+      protected void configure() {
+        bindScope(ActivityScoped.class, context);
+        bind(ActivityContext.class).toInstance(context);
+      }
+    });
+    context.setInjector(injector);
+    context.start("benchmark");
+
+    proxy = injector.getInstance(ScopedBean.class);
+    slot = context.slots.get(key);
+    instance = (ScopedBean) context.getHolder().getStoredInstance(key);
+  }
+
+  @Benchmark
+  public int directCall() {
+    return instance.increment();
+  }
+
+  @Benchmark
+  public int proxyCall() {
+    return proxy.increment();
+  }
+
+  @Benchmark
+  public ScopedBean resolve() {
+    return injector.getInstance(ScopedBean.class);
+  }
+
+  @Benchmark
+  public Object slotLookup() {
+    return context.currentHolder.getStoredInstance(slot);
+  }
+
+  @Benchmark
+  public Object lockedLookup() {
+    ActivityHolder holder = context.activities.get(context.currentActivity);
+    lock.readLock().lock();
+    try {
+      return holder.getStoredInstance(key);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @ActivityScoped
+  public static class ScopedBean {
+    int value;
+
+    public int increment() {
+      return ++value;
+    }
+  }
+}
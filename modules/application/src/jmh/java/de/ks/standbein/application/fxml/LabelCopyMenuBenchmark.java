@@ -0,0 +1,102 @@
+/*
+ * Copyright [2014] [Christian Loehnert, krampenschiesser@gmail.com]
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.ks.standbein.application.fxml;
+
+import com.sun.javafx.application.PlatformImpl;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
+import javafx.scene.input.MouseButton;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.VBox;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.LinkedList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the label copy menu wiring for a view with 5000 nodes, compared to attaching a handler to every label.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LabelCopyMenuBenchmark {
+  private static final int ROWS = 1250;
+
+  private DefaultLoader<Node, Object> loader;
+  private VBox view;
+  private Node[] targets;
+  private int nextTarget;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    PlatformImpl.startup(() -> {
+    });
+    loader = new DefaultLoader<>(null, null);
+    view = new VBox();
+    targets = new Node[ROWS * 2];
+    for (int i = 0; i < ROWS; i++) {
+      Label label = new Label("Label " + i);
+      TextField textField = new TextField();
+      HBox row = new HBox(label, new VBox(textField));
+      view.getChildren().add(row);
+      targets[i * 2] = label;
+      targets[i * 2 + 1] = textField;
+    }
+    loader.fillLabelCopyMenu(view);
+  }
+
+  /**
+   * The lazy wiring doesn't depend on the size of the view, a fresh root keeps the filters from piling up on the shared view.
+   */
+  @Benchmark
+  public Node lazyWiring() {
+    Pane root = new Pane();
+    loader.fillLabelCopyMenu(root);
+    return root;
+  }
+
+  @Benchmark
+  public Label resolveClickedLabel() {
+    Node target = targets[nextTarget];
+    nextTarget = (nextTarget + 1) % targets.length;
+    return DefaultLoader.findLabel(view, target);
+  }
+
+  @Benchmark
+  public Node eagerWiring() {
+    LinkedList<Node> stack = new LinkedList<>();
+    stack.add(view);
+    while (!stack.isEmpty()) {
+      Node node = stack.pollFirst();
+      if (node instanceof Parent) {
+        stack.addAll(((Parent) node).getChildrenUnmodifiable());
+      }
+      if (node instanceof Label) {
+        node.setOnMouseClicked(e -> {
+          if (e.getButton() == MouseButton.SECONDARY) {
+            e.consume();
+          }
+        });
+      }
+    }
+    return view;
+  }
+}
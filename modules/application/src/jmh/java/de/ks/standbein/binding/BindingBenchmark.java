@@ -0,0 +1,118 @@
+/*
+ * Copyright [2014] [Christian Loehnert, krampenschiesser@gmail.com]
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.ks.standbein.binding;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Setting up a binding with 20 properties and applying a model to it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BindingBenchmark {
+  private final Model model = new Model();
+  private Binding binding;
+
+  @Setup
+  public void setUp() {
+    binding = createBinding();
+  }
+
+  @Benchmark
+  public Binding setup() {
+    return createBinding();
+  }
+
+  @Benchmark
+  public Binding applyModel() {
+    binding.applyModelToProperties(model);
+    return binding;
+  }
+
+  @Benchmark
+  public Model applyControllerContent() {
+    binding.applyControllerContent(model);
+    return model;
+  }
+
+  private Binding createBinding() {
+    Binding binding = new Binding();
+    for (int i = 0; i < 5; i++) {
+      binding.getStringProperty(Model.class, Model::getName);
+      binding.getStringProperty(Model.class, Model::getDescription);
+      binding.getIntegerProperty(Model.class, Model::getCount);
+      binding.getBooleanProperty(Model.class, Model::isActive);
+      binding.getStringProperty(Model.class, m -> m.getChild().getName());
+    }
+    return binding;
+  }
+
+  public static class Model {
+    protected String name = "name";
+    protected String description = "description";
+    protected int count = 42;
+    protected boolean active = true;
+    protected Model child;
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+
+    public String getDescription() {
+      return description;
+    }
+
+    public void setDescription(String description) {
+      this.description = description;
+    }
+
+    public int getCount() {
+      return count;
+    }
+
+    public void setCount(int count) {
+      this.count = count;
+    }
+
+    public boolean isActive() {
+      return active;
+    }
+
+    public void setActive(boolean active) {
+      this.active = active;
+    }
+
+    public Model getChild() {
+      if (child == null) {
+        child = new Model();
+      }
+      return child;
+    }
+
+    public void setChild(Model child) {
+      this.child = child;
+    }
+  }
+}
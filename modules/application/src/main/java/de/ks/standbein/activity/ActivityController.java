@@ -15,9 +15,11 @@
 
 package de.ks.standbein.activity;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Injector;
 import com.google.inject.Key;
 import de.ks.eventsystem.bus.EventBus;
+import de.ks.executor.WaitStatistics;
 import de.ks.standbein.activity.context.ActivityContext;
 import de.ks.standbein.activity.context.ActivityStore;
 import de.ks.standbein.activity.executor.ActivityExecutor;
@@ -40,10 +42,13 @@ import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Provider;
 import javax.inject.Singleton;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
@@ -74,8 +79,15 @@ public class ActivityController {
   @Inject
   protected Injector injector;
 
-  protected final Map<String, ActivityCfg> registeredActivities = new HashMap<>();
+  protected final Map<String, ActivityCfg> registeredActivities = new ConcurrentHashMap<>();
+  /**
+   * Activities loaded ahead of navigation, see {@link #prepare(ActivityHint)}.
+   */
+  protected final Map<String, CompletableFuture<ActivityCfg>> preparedActivities = new ConcurrentHashMap<>();
+  protected final ExecutorService prepareExecutor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setDaemon(true).setNameFormat("activity-prepare-%d").build());
   protected final ReentrantLock lock = new ReentrantLock(true);
+  protected final Object prepareLock = new Object();
+  protected final WaitStatistics waitStatistics = new WaitStatistics("ActivityController.waitForTasks");
 
   public void stopCurrentStartNew(ActivityHint activityHint) {
     loadInExecutor("could not start activityhint " + activityHint, () -> {
@@ -109,19 +121,18 @@ public class ActivityController {
         if (registeredActivities.containsKey(id)) {
           resume(id, activityHint.isRefreshOnReturn(), dataSourceHint, null, activityHint);
         } else {
-          context.start(id);
-          ActivityCfg activityCfg = injector.getInstance(activityHint.getNextActivity());
-
+          ActivityCfg activityCfg = startPrepared(id);
+          if (activityCfg == null) {
+            log.info("Starting activity {}", id);
+            activityCfg = createActivity(activityHint);
+          } else {
+            log.info("Starting prepared activity {}", id);
+          }
           registeredActivities.put(id, activityCfg);
 
           activityCfg.setActivityHint(activityHint);
+          store.getDatasource().setLoadingHint(dataSourceHint);
 
-          log.info("Starting activity {}", id);
-          DataSource dataSource = injector.getInstance(activityCfg.getDataSource());
-          dataSource.setLoadingHint(dataSourceHint);
-          store.setDatasource(dataSource);
-
-          initialization.loadActivity(activityCfg);
           initialization.getControllers().forEach(eventBus::register);
 
           select(activityCfg, activityCfg.getInitialController());
@@ -147,6 +158,84 @@ public class ActivityController {
     });
   }
 
+  /**
+   * Instantiates the activity, its datasource and loads all views in the background without showing it.
+   * A later {@link #startOrResume(ActivityHint)} of the same activity id only needs to present the loaded view.
+   *
+   * @return the prepared activity, or a future of null if the activity is already starting and can't be prepared anymore
+   */
+  public CompletableFuture<ActivityCfg> prepare(ActivityHint activityHint) {
+    String id = activityHint.getNextActivityId();
+    synchronized (prepareLock) {
+      ActivityCfg registered = registeredActivities.get(id);
+      if (registered != null) {
+        return CompletableFuture.completedFuture(registered);
+      }
+      if (context.getActivities().contains(id) && !context.isPrepared(id)) {
+        log.debug("Not preparing activity {} because it is already running", id);
+        return CompletableFuture.completedFuture(null);
+      }
+      return preparedActivities.computeIfAbsent(id, key -> CompletableFuture.supplyAsync(() -> {
+        long start = System.currentTimeMillis();
+        if (!context.prepare(id)) {
+          throw new IllegalStateException("Activity " + id + " is already running");
+        }
+        try {
+          ActivityCfg activityCfg = context.callInActivity(id, () -> createActivity(activityHint));
+          log.debug("Prepared activity {} in {}ms", id, System.currentTimeMillis() - start);
+          return activityCfg;
+        } catch (Exception e) {
+          log.error("Could not prepare activity {}", id, e);
+          throw new RuntimeException(e);
+        }
+      }, prepareExecutor));
+    }
+  }
+
+  /**
+   * Waits for a pending preparation of the activity and starts it.
+   * Registration in {@link #prepare(ActivityHint)} and the start happen under the same lock,
+   * so no preparation can begin once the activity is started.
+   *
+   * @return the prepared activity or null if there is none or preparation failed
+   */
+  protected ActivityCfg startPrepared(String id) {
+    while (true) {
+      CompletableFuture<ActivityCfg> future = preparedActivities.get(id);
+      ActivityCfg activityCfg = null;
+      if (future != null) {
+        try {
+          activityCfg = future.join();
+        } catch (Exception e) {
+          log.warn("Prepared activity {} is not usable, starting it again.", id);
+        }
+      }
+      synchronized (prepareLock) {
+        if (preparedActivities.get(id) != future) {
+          continue;//prepared while we were waiting, wait for that one
+        }
+        preparedActivities.remove(id);
+        if (activityCfg == null && context.isPrepared(id)) {
+          context.runInActivity(id, this::shutdownExecutors);
+          context.cleanup(id);
+        }
+        context.start(id);
+        return activityCfg;
+      }
+    }
+  }
+
+  protected ActivityCfg createActivity(ActivityHint activityHint) {
+    ActivityCfg activityCfg = injector.getInstance(activityHint.getNextActivity());
+    activityCfg.setActivityHint(activityHint);
+
+    DataSource dataSource = injector.getInstance(activityCfg.getDataSource());
+    store.setDatasource(dataSource);
+
+    initialization.loadActivity(activityCfg);
+    return activityCfg;
+  }
+
   protected boolean isCurrentActivity(ActivityHint activityHint) {
     String currentActivityId = getCurrentActivityId();
     if (hasCurrentActivity() && context.hasCurrentActivity()) {
@@ -285,6 +374,23 @@ public class ActivityController {
   public void stopAll() {
     HashSet<String> ids = new HashSet<>(registeredActivities.keySet());
     ids.forEach(id -> stop(id, true));
+    discardPrepared();
+  }
+
+  protected void discardPrepared() {
+    HashSet<String> ids = new HashSet<>(preparedActivities.keySet());
+    for (String id : ids) {
+      CompletableFuture<ActivityCfg> future = preparedActivities.remove(id);
+      try {
+        future.join();
+      } catch (Exception e) {
+        //logged during preparation
+      }
+      if (context.isPrepared(id)) {
+        context.runInActivity(id, this::shutdownExecutors);
+        context.cleanup(id);
+      }
+    }
   }
 
   protected Future<?> loadInExecutor(String errorMsg, Runnable runnable) {
@@ -312,18 +418,23 @@ public class ActivityController {
   }
 
   public void waitForTasks() {
-    while (!loadingExecutor.isShutdown() && loadingExecutor.getActiveCount() > 0) {
-      try {
-        TimeUnit.MILLISECONDS.sleep(100);
-      } catch (InterruptedException e) {
-        log.trace("Got interrupted while waiting for tasks.", e);
-      }
+    long start = System.nanoTime();
+    try {
+      loadingExecutor.waitForRunningTasks();
+    } catch (InterruptedException e) {
+      log.trace("Got interrupted while waiting for tasks.", e);
+      Thread.currentThread().interrupt();
     }
     if (context.hasCurrentActivity()) {
       waitForDataSource();
       executor.waitForAllTasksDone();
       javaFXExecutor.waitForAllTasksDone();
     }
+    waitStatistics.recordSince(start);
+  }
+
+  public WaitStatistics getWaitStatistics() {
+    return waitStatistics;
   }
 
   public void waitForDataSource() {
@@ -389,6 +500,7 @@ public class ActivityController {
   @PreDestroy
   private void shutdown() {
     stopAll();
+    prepareExecutor.shutdownNow();
     loadingExecutor.shutdown();
     try {
       loadingExecutor.awaitTermination(5, TimeUnit.SECONDS);
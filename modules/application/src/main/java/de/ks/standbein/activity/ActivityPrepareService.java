@@ -0,0 +1,59 @@
+/*
+ * Copyright [2014] [Christian Loehnert, krampenschiesser@gmail.com]
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.ks.standbein.activity;
+
+import com.google.inject.name.Named;
+import de.ks.standbein.launch.Service;
+import de.ks.standbein.module.ActivityContextModule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import java.util.Set;
+
+/**
+ * Prepares the configured activities in the background once the application is started,
+ * so the first navigation to them only needs to present the already loaded view.
+ */
+@Singleton
+public class ActivityPrepareService extends Service {
+  private static final Logger log = LoggerFactory.getLogger(ActivityPrepareService.class);
+
+  @Inject
+  @Named(ActivityContextModule.PREPARED_ACTIVITIES)
+  Set<ActivityHint> hints;
+  @Inject
+  Provider<ActivityController> controller;
+
+  @Override
+  protected void doStart() {
+    for (ActivityHint hint : hints) {
+      log.debug("Preparing activity {}", hint.getNextActivityId());
+      controller.get().prepare(hint);
+    }
+  }
+
+  @Override
+  protected void doStop() {
+
+  }
+
+  @Override
+  public int getRunLevel() {
+    return 6;
+  }
+}
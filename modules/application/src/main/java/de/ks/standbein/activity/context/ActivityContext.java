@@ -19,6 +19,7 @@ import com.google.inject.Injector;
 import com.google.inject.Key;
 import com.google.inject.Provider;
 import com.google.inject.Scope;
+import de.ks.executor.WaitStatistics;
 import javassist.util.proxy.MethodHandler;
 import javassist.util.proxy.Proxy;
 import javassist.util.proxy.ProxyFactory;
@@ -31,7 +32,9 @@ import java.lang.reflect.Method;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
@@ -40,15 +43,39 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
 public class ActivityContext implements Scope {
   private static final Logger log = LoggerFactory.getLogger(ActivityContext.class);
   public static final String INITIAL_ACTIVITY = "Initial-Unbound";
+  private static final ClassValue<Class<?>> reflectiveProxyClasses = new ClassValue<Class<?>>() {
+    @Override
+    protected Class<?> computeValue(Class<?> type) {
+      ProxyFactory factory = new ProxyFactory();
+      factory.setSuperclass(type);
+      return factory.createClass();
+    }
+  };
 
   protected final Objenesis objenesis = new ObjenesisStd(true);
   protected final ConcurrentHashMap<String, ActivityHolder> activities = new ConcurrentHashMap<>();
   protected final ConcurrentHashMap<Key<?>, Object> proxies = new ConcurrentHashMap<>();
 
+  protected final KeySlots slots = new KeySlots();
+
   protected volatile String currentActivity = null;
+  /**
+   * Holder of the current activity, kept in sync with currentActivity while holding the write lock.
+   */
+  protected volatile ActivityHolder currentHolder = null;
+  /**
+   * Activities created via {@link #prepare(String)} which were not started yet.
+   */
+  protected final Set<String> preparedActivities = ConcurrentHashMap.newKeySet();
+  /**
+   * Threads working for a specific activity (eg. while it is prepared in the background) see that activity instead of the current one.
+   */
+  protected final ThreadLocal<ActivityHolder> boundHolder = new ThreadLocal<>();
+  protected final AtomicInteger boundThreads = new AtomicInteger();
   protected volatile Injector injector;
 
   private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock(true);
+  protected final WaitStatistics waitStatistics = new WaitStatistics("ActivityContext.waitForOtherThreads");
 
   public ActivityContext() {
     startActivity(INITIAL_ACTIVITY);
@@ -76,10 +103,76 @@ public class ActivityContext implements Scope {
     cleanupAllActivities();
   }
 
+  /**
+   * Creates the activity without making it the current one.
+   * Scoped instances can be created for it via {@link #callInActivity(String, Callable)}.
+   *
+   * @return false if the activity already exists
+   */
+  public boolean prepare(String id) {
+    lock.writeLock().lock();
+    try {
+      if (activities.containsKey(id)) {
+        return false;
+      }
+      activities.put(id, new ActivityHolder(id, slots));
+      preparedActivities.add(id);
+      log.debug("Prepared activity {}", id);
+      return true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public boolean isPrepared(String id) {
+    return preparedActivities.contains(id);
+  }
+
+  /**
+   * Executes the callable with the given activity bound to the current thread.
+   * If the activity doesn't exist the callable runs against the current activity.
+   */
+  public <T> T callInActivity(String id, Callable<T> callable) throws Exception {
+    ActivityHolder holder = id == null ? null : activities.get(id);
+    if (holder == null) {
+      return callable.call();
+    }
+    ActivityHolder previous = boundHolder.get();
+    if (previous == null) {
+      boundThreads.incrementAndGet();
+    }
+    boundHolder.set(holder);
+    try {
+      return callable.call();
+    } finally {
+      if (previous == null) {
+        boundHolder.remove();
+        boundThreads.decrementAndGet();
+      } else {
+        boundHolder.set(previous);
+      }
+    }
+  }
+
+  public void runInActivity(String id, Runnable runnable) {
+    try {
+      callInActivity(id, () -> {
+        runnable.run();
+        return null;
+      });
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new RuntimeException(e);
+    }
+  }
+
   protected void cleanupSingleActivity(String id) {
     lock.writeLock().lock();
     try {
       ActivityHolder activityHolder = activities.remove(id);
+      preparedActivities.remove(id);
+      updateCurrentHolder();
       log.debug("Cleanup activity {}", activityHolder.getId());
       activityHolder.destroy();
     } finally {
@@ -90,9 +183,9 @@ public class ActivityContext implements Scope {
   public void cleanupSingleBean(Key<?> key) {
     lock.writeLock().lock();
     try {
-      ActivityHolder activityHolder = activities.get(getCurrentActivity());
+      ActivityHolder activityHolder = getActiveHolder();
 
-      Object instance = activityHolder.objectStore.remove(key);
+      Object instance = activityHolder.remove(key);
       if (instance != null) {
         log.debug("Cleaned up bean {} of activity {}", key, activityHolder.getId());
       }
@@ -105,12 +198,16 @@ public class ActivityContext implements Scope {
     lock.writeLock().lock();
     try {
       currentActivity = id;
-      if (activities.containsKey(id)) {
+      if (preparedActivities.remove(id)) {
+        log.debug("Starting prepared activity {}", id);
+        return updateCurrentHolder();
+      } else if (activities.containsKey(id)) {
         log.debug("Resuming activity {}", id);
-        return activities.get(id);
+        return updateCurrentHolder();
       } else {
-        ActivityHolder holder = new ActivityHolder(id);
+        ActivityHolder holder = new ActivityHolder(id, slots);
         this.activities.put(id, holder);
+        updateCurrentHolder();
 
         log.debug("Started activity {}", holder.getId());
         return holder;
@@ -129,10 +226,11 @@ public class ActivityContext implements Scope {
         log.warn("Activity {} is already stopped", id);
         return;
       }
-      int count = activityHolder.getCount().decrementAndGet();
+      int count = activityHolder.release();
       if (count == 0) {
         cleanupSingleActivity(id);
         currentActivity = null;
+        updateCurrentHolder();
         log.debug("Stopped activity {}", activityHolder.getId());
       } else {
         log.debug("Don't stop activity {} because of {} holders.", activityHolder.getId(), count);
@@ -165,49 +263,89 @@ public class ActivityContext implements Scope {
         removed.add(id);
       }
       this.activities.keySet().removeAll(removed);
+      updateCurrentHolder();
     } finally {
       lock.writeLock().unlock();
     }
   }
 
   private void waitForOtherThreads(ActivityHolder activityHolder) {
-    while (multipleThreadsActive(activityHolder)) {
-      try {
-        Thread.sleep(100);
-      } catch (InterruptedException e) {
-        log.error("Interrupted", e);
-      }
+    long start = System.nanoTime();
+    try {
+      activityHolder.awaitSingleHolder();
+    } catch (InterruptedException e) {
+      log.error("Interrupted", e);
+      Thread.currentThread().interrupt();
+    } finally {
+      waitStatistics.recordSince(start);
     }
   }
 
+  public WaitStatistics getWaitStatistics() {
+    return waitStatistics;
+  }
+
   private boolean multipleThreadsActive(ActivityHolder activityHolder) {
     return activityHolder.getCount().get() > 1;
   }
 
+  /**
+   * Needs to be called while holding the write lock.
+   */
+  private ActivityHolder updateCurrentHolder() {
+    String id = currentActivity;
+    currentHolder = id == null ? null : activities.get(id);
+    return currentHolder;
+  }
+
+  private ActivityHolder getActiveHolder() {
+    if (boundThreads.get() > 0) {
+      ActivityHolder bound = boundHolder.get();
+      if (bound != null) {
+        return bound;
+      }
+    }
+    return currentHolder;
+  }
+
   public ActivityHolder getHolder() {
-    if (currentActivity == null) {
+    ActivityHolder holder = getActiveHolder();
+    if (holder == null) {
       throw new RuntimeException("No activity active in current thread!");
     }
-    return activities.get(currentActivity);
+    return holder;
   }
 
   public String getCurrentActivity() {
+    if (boundThreads.get() > 0) {
+      ActivityHolder bound = boundHolder.get();
+      if (bound != null) {
+        return bound.getId();
+      }
+    }
     return currentActivity;
   }
 
   public boolean hasCurrentActivity() {
-    return currentActivity != null;
+    return getCurrentActivity() != null;
   }
 
   @Override
   public <T> Provider<T> scope(Key<T> key, Provider<T> unscoped) {
+    int slot = slots.get(key);
     return new Provider<T>() {
+      private volatile T proxy;
+
       @Override
       public T get() {
-        Object instance = getOrCreateInstance(key, unscoped);
-        @SuppressWarnings("unchecked")
-        Class<T> clazz = (Class<T>) instance.getClass();
-        return getProxy(clazz, key);
+        Object instance = getOrCreateInstance(slot, key, unscoped);
+        T retval = proxy;
+        if (retval == null) {
+          @SuppressWarnings("unchecked")
+          Class<T> clazz = (Class<T>) instance.getClass();
+          retval = proxy = getProxy(clazz, key, slot);
+        }
+        return retval;
       }
 
       @Override
@@ -217,22 +355,19 @@ public class ActivityContext implements Scope {
     };
   }
 
-  private Object getOrCreateInstance(Key<?> key, Provider<?> unscoped) {
-    ActivityHolder holder = activities.get(currentActivity);
-    Object instance = null;
-    lock.readLock().lock();
-    try {
-      instance = holder.getStoredInstance(key);
-    } finally {
-      lock.readLock().unlock();
-    }
+  private Object getOrCreateInstance(int slot, Key<?> key, Provider<?> unscoped) {
+    Object instance = getActiveHolder().getStoredInstance(slot);
 
     if (instance == null) {
       lock.writeLock().lock();
       try {
-        instance = unscoped.get();
-        holder.put(key, instance);
-        log.debug("For {} created new instance {} and put it to store", key, instance);
+        ActivityHolder holder = getActiveHolder();
+        instance = holder.getStoredInstance(slot);
+        if (instance == null) {
+          instance = unscoped.get();
+          holder.put(key, instance);
+          log.debug("For {} created new instance {} and put it to store", key, instance);
+        }
       } finally {
         lock.writeLock().unlock();
       }
@@ -243,9 +378,8 @@ public class ActivityContext implements Scope {
     return instance;
   }
 
-  private Object getCurrentInstance(Key<?> key) {
-    ActivityHolder holder = activities.get(currentActivity);
-    Object storedBean = holder.getStoredInstance(key);
+  private Object getCurrentInstance(int slot, Key<?> key) {
+    Object storedBean = getActiveHolder().getStoredInstance(slot);
     if (storedBean == null) {
       if (injector == null) {
         throw new IllegalStateException("Injector not yet set! Trying to get " + key);
@@ -259,28 +393,51 @@ public class ActivityContext implements Scope {
   }
 
   @SuppressWarnings("unchecked")
-  private <T> T getProxy(Class<T> clazz, Key<T> key) {
-    if (proxies.containsKey(key)) {
-      return (T) proxies.get(key);
-    } else {
-      ProxyFactory factory = new ProxyFactory();
-      factory.setSuperclass(clazz);
-      Class proxy = factory.createClass();
+  private <T> T getProxy(Class<T> clazz, Key<T> key, int slot) {
+    Object retval = proxies.get(key);
+    if (retval == null) {
+      ScopedInstanceSource source = new ScopedInstanceSource() {
+        @Override
+        public Object getCurrentInstance() {
+          return ActivityContext.this.getCurrentInstance(slot, key);
+        }
 
-      Object retval = objenesis.newInstance(proxy);
-      ((Proxy) retval).setHandler(new MethodHandler() {
         @Override
-        public Object invoke(Object self, Method thisMethod, Method proceed, Object[] args) throws Throwable {
-          Object currentInstance = getCurrentInstance(key);
-          if (thisMethod.getName().equals("toString")) {
-            return "Proxy for " + clazz.getName() + " current activity: '" + currentActivity + "'" + String.valueOf(thisMethod.invoke(currentInstance, args));
-          }
-          return thisMethod.invoke(currentInstance, args);
+        public String describeCurrentInstance() {
+          return "Proxy for " + clazz.getName() + " current activity: '" + getCurrentActivity() + "'" + String.valueOf(getCurrentInstance());
         }
-      });
-      proxies.putIfAbsent(key, retval);
-      return (T) retval;
+      };
+      retval = ScopedProxyGenerator.canGenerate(clazz) ? createGeneratedProxy(clazz, source) : createReflectiveProxy(clazz, source);
+      Object previous = proxies.putIfAbsent(key, retval);
+      retval = previous != null ? previous : retval;
     }
+    return (T) retval;
+  }
+
+  private Object createGeneratedProxy(Class<?> clazz, ScopedInstanceSource source) {
+    try {
+      Class<?> proxyClass = ScopedProxyGenerator.getProxyClass(clazz);
+      Object retval = objenesis.newInstance(proxyClass);
+      proxyClass.getField(ScopedProxyGenerator.SOURCE_FIELD).set(retval, source);
+      return retval;
+    } catch (RuntimeException | LinkageError | ReflectiveOperationException e) {
+      log.warn("Could not create generated proxy for {}, falling back to reflective proxy", clazz.getName(), e);
+      return createReflectiveProxy(clazz, source);
+    }
+  }
+
+  private Object createReflectiveProxy(Class<?> clazz, ScopedInstanceSource source) {
+    Object retval = objenesis.newInstance(reflectiveProxyClasses.get(clazz));
+    ((Proxy) retval).setHandler(new MethodHandler() {
+      @Override
+      public Object invoke(Object self, Method thisMethod, Method proceed, Object[] args) throws Throwable {
+        if (thisMethod.getName().equals("toString")) {
+          return source.describeCurrentInstance();
+        }
+        return thisMethod.invoke(source.getCurrentInstance(), args);
+      }
+    });
+    return retval;
   }
 
   public Set<String> getActivities() {
@@ -288,7 +445,7 @@ public class ActivityContext implements Scope {
   }
 
   public boolean isMainActivity(String activity) {
-    return activities.keySet().size() == 2 && activities.containsKey(activity) && activities.containsKey(INITIAL_ACTIVITY);
+    return activities.keySet().size() - preparedActivities.size() == 2 && activities.containsKey(activity) && !preparedActivities.contains(activity) && activities.containsKey(INITIAL_ACTIVITY);
   }
 
   public void setInjector(Injector injector) {
@@ -17,6 +17,8 @@ package de.ks.standbein.activity.context;
 
 import com.google.inject.Key;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -25,9 +27,19 @@ public class ActivityHolder {
   protected final String id;
   protected final Map<Key<?>, Object> objectStore = new ConcurrentHashMap<>();
   protected final AtomicInteger count = new AtomicInteger(0);
+  protected final KeySlots slots;
+  /**
+   * Copy on write snapshot of the object store, indexed by {@link KeySlots}, for lock free lookups.
+   */
+  protected volatile Object[] instances = new Object[0];
 
   public ActivityHolder(String id) {
+    this(id, new KeySlots());
+  }
+
+  ActivityHolder(String id, KeySlots slots) {
     this.id = id;
+    this.slots = slots;
     count.incrementAndGet();
   }
 
@@ -35,23 +47,73 @@ public class ActivityHolder {
     return objectStore.get(key);
   }
 
+  public Object getStoredInstance(int slot) {
+    Object[] snapshot = instances;
+    return slot < snapshot.length ? snapshot[slot] : null;
+  }
+
   public void put(Key<?> key, Object instance) {
-    objectStore.putIfAbsent(key, instance);
+    synchronized (objectStore) {
+      if (objectStore.putIfAbsent(key, instance) == null) {
+        setSlot(slots.get(key), instance);
+      }
+    }
+  }
+
+  public Object remove(Key<?> key) {
+    synchronized (objectStore) {
+      Object removed = objectStore.remove(key);
+      if (removed != null) {
+        setSlot(slots.get(key), null);
+      }
+      return removed;
+    }
+  }
+
+  private void setSlot(int slot, Object instance) {
+    Object[] copy = Arrays.copyOf(instances, Math.max(instances.length, slot + 1));
+    copy[slot] = instance;
+    instances = copy;
   }
 
   public Map<Key<?>, Object> getObjectStore() {
-    return objectStore;
+    return Collections.unmodifiableMap(objectStore);
   }
 
   public AtomicInteger getCount() {
     return count;
   }
 
+  /**
+   * @return the remaining holders
+   */
+  public int release() {
+    int retval = count.decrementAndGet();
+    synchronized (count) {
+      count.notifyAll();
+    }
+    return retval;
+  }
+
+  /**
+   * Blocks until only one holder is left.
+   */
+  public void awaitSingleHolder() throws InterruptedException {
+    synchronized (count) {
+      while (count.get() > 1) {
+        count.wait();
+      }
+    }
+  }
+
   public String getId() {
     return id;
   }
 
   public void destroy() {
-    objectStore.clear();
+    synchronized (objectStore) {
+      objectStore.clear();
+      instances = new Object[0];
+    }
   }
 }
@@ -22,6 +22,7 @@ import de.ks.standbein.activity.initialization.ActivityInitialization;
 import de.ks.standbein.binding.Binding;
 import de.ks.standbein.datasource.DataSource;
 import de.ks.eventsystem.bus.EventBus;
+import de.ks.executor.WaitStatistics;
 import javafx.application.Platform;
 import javafx.beans.property.ReadOnlyBooleanProperty;
 import javafx.beans.property.SimpleBooleanProperty;
@@ -30,6 +31,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
+import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -41,8 +43,8 @@ public class ActivityStore {
 //    isDebugging = ManagementFactory.getRuntimeMXBean().getInputArguments().stream().filter(s -> s.contains("jdwp")).findFirst().isPresent();
 //  }
 
-  static enum LoadOrSave {
-    LOAD, SAVE;
+  public enum Operation {
+    RELOAD, SAVE, CUSTOM, INDEPENDENT;
   }
 
   private static final Logger log = LoggerFactory.getLogger(ActivityStore.class);
@@ -60,11 +62,24 @@ public class ActivityStore {
   protected final SimpleBooleanProperty loading = new SimpleBooleanProperty(false);
   protected final SimpleBooleanProperty stopping = new SimpleBooleanProperty(false);
 
-  protected final ConcurrentLinkedDeque<Runnable> queue = new ConcurrentLinkedDeque<>();
-  protected final AtomicBoolean inExecution = new AtomicBoolean();
+  /**
+   * Waiting operations, guarded by this.
+   */
+  protected final Deque<StoreTask> queue = new ArrayDeque<>();
+  /**
+   * Started operations, either a single reload/save/custom runnable or several independent runnables. Guarded by this.
+   */
+  protected final List<StoreTask> running = new ArrayList<>();
   protected DataSource datasource;
-  protected volatile CompletableFuture<Void> loadingFuture;
+  /**
+   * Set while the model is reset before the next model is set, the binding skips that intermediate reset.
+   */
+  protected boolean replacingModel;
+  protected volatile CompletableFuture<?> loadingFuture;
   protected volatile CompletableFuture<Object> savingFuture;
+  protected final WaitStatistics waitStatistics = new WaitStatistics("ActivityStore.waitForDataSource");
+  protected final Map<Operation, WaitStatistics> latencies = new EnumMap<>(Operation.class);
+  protected volatile int maxQueueDepth;
 
   @Inject
   public ActivityStore(ActivityExecutor executor, ActivityJavaFXExecutor javaFXExecutor, ActivityContext context, ActivityInitialization initialization, EventBus eventBus) {
@@ -73,12 +88,19 @@ public class ActivityStore {
     this.context = context;
     this.initialization = initialization;
     this.eventBus = eventBus;
+    for (Operation operation : Operation.values()) {
+      latencies.put(operation, new WaitStatistics("ActivityStore." + operation.name().toLowerCase(Locale.ROOT)));
+    }
   }
 
   @Inject
   public void setBinding(Binding binding) {
     this.binding = binding;
-    model.addListener(binding::bindChangedModel);
+    model.addListener((observable, oldValue, newValue) -> {
+      if (!replacingModel) {
+        binding.bindChangedModel(observable, oldValue, newValue);
+      }
+    });
   }
 
   @SuppressWarnings("unchecked")
@@ -88,7 +110,12 @@ public class ActivityStore {
 
   public void setModel(Object model) {
     log.info("Setting new model {}", model);
-    this.model.set(null);
+    replacingModel = model != null;
+    try {
+      this.model.set(null);//always fire a change, even if the same instance is set again
+    } finally {
+      replacingModel = false;
+    }
     this.model.set(model);
   }
 
@@ -108,102 +135,162 @@ public class ActivityStore {
     return datasource;
   }
 
-  protected boolean advanceInQueue() {
-    Runnable first = queue.peekFirst();
-    if (first != null && inExecution.compareAndSet(false, true)) {
-      syncSetLoadingProperty();
-      log.trace("Advanced in queue, next task is {}", first);
-      first.run();
-      return true;
-    } else {
-      log.trace("Could not advance in queue");
+  protected void enqueue(StoreTask task) {
+    synchronized (this) {
+      queue.add(task);
+      maxQueueDepth = Math.max(maxQueueDepth, queue.size());
+      advanceInQueue();
     }
-    return false;
+    updateLoadingProperty();
   }
 
-  private void syncSetLoadingProperty() {
-    if (stopping.get()) {
+  /**
+   * Starts the next operations if possible, adjacent independent runnables are executed in parallel.
+   * Needs to be called while holding the monitor.
+   */
+  protected void advanceInQueue() {
+    while (!queue.isEmpty()) {
+      StoreTask next = queue.peekFirst();
+      boolean canStart = running.isEmpty() || (next.operation == Operation.INDEPENDENT && running.stream().allMatch(t -> t.operation == Operation.INDEPENDENT));
+      if (!canStart) {
+        log.trace("Could not advance in queue");
+        return;
+      }
+      queue.removeFirst();
+      running.add(next);
+      log.trace("Advanced in queue, next task is {}", next);
+      next.start();
+    }
+  }
+
+  protected void finishExecution(StoreTask task) {
+    if (!task.finish()) {
       return;
     }
-    try {
-      javaFXExecutor.submit(() -> loading.set(true)).get();
-    } catch (InterruptedException e) {
-      //
-    } catch (ExecutionException e) {
-      log.error("Coulöd not set loading property", e);
+    synchronized (this) {
+      running.remove(task);
+      latencies.get(task.operation).recordSince(task.enqueued);
+      log.trace("Finished execution of {}", task);
+      advanceInQueue();
+      updateLoadingProperty();//before waking up waiters, so they see the idle state
+      if (isIdle()) {
+        notifyAll();
+      }
     }
   }
 
-  protected synchronized void finishExecution() {
-    queue.removeFirst();
-    inExecution.set(false);
-    log.trace("Finished execution");
-    if (!advanceInQueue()) {
-      javaFXExecutor.submit(() -> loading.set(false));
-    }
+  /**
+   * Needs to be called while holding the monitor.
+   */
+  protected boolean isIdle() {
+    return queue.isEmpty() && running.isEmpty();
   }
 
-  @SuppressWarnings("unchecked")
-  protected void doReload() {
-    loadingFuture = null;
-    CompletableFuture<Object> load = CompletableFuture.supplyAsync(() -> {
-      return datasource.loadModel(m -> {
-        if (m != null) {
-          initialization.getDataStoreCallbacks().forEach(c -> {
-            try {
-              c.duringLoad(m);
-            } catch (ClassCastException e) {
-              if (c.ignoreTypeMismatch()) {
-                log.trace("Type mismatch in callback: ", e);
-              } else {
-                throw e;
-              }
-            }
-          });
+  /**
+   * Never blocks, the property always reflects the latest state when the JavaFX thread gets to it.
+   */
+  protected void updateLoadingProperty() {
+    if (stopping.get()) {
+      return;
+    }
+    try {
+      javaFXExecutor.execute(() -> {
+        boolean busy;
+        synchronized (this) {
+          busy = !isIdle();
         }
+        loading.set(busy);
       });
-    }, executor);
+    } catch (IllegalStateException e) {
+      log.debug("Could not update loading property, javafx executor is already shut down.");
+    }
+  }
 
-    boolean isFirstScheduling = load.getNumberOfDependents() == 0;
+  @SuppressWarnings("unchecked")
+  protected void doReload(StoreTask task) {
+    CompletableFuture<Object> load = new CompletableFuture<>();
+    AtomicBoolean started = new AtomicBoolean();
+    Future<?> execution = executor.submit(() -> {
+      if (!started.compareAndSet(false, true)) {
+        return;
+      }
+      try {
+        load.complete(datasource.loadModel(m -> {
+          if (m != null && !task.isCancelled()) {
+            initialization.getDataStoreCallbacks().forEach(c -> {
+              try {
+                c.duringLoad(m);
+              } catch (ClassCastException e) {
+                if (c.ignoreTypeMismatch()) {
+                  log.trace("Type mismatch in callback: ", e);
+                } else {
+                  throw e;
+                }
+              }
+            });
+          }
+        }));
+      } catch (Throwable t) {
+        load.completeExceptionally(t);
+      }
+    });
+    //a load inside the datasource is not interrupted, it finishes and its result is discarded, so loads never overlap
+    task.cancellation = () -> {
+      if (started.compareAndSet(false, true)) {
+        execution.cancel(false);
+        load.cancel(false);
+      }
+    };
+    if (execution.isCancelled() && started.compareAndSet(false, true)) {//rejected by the shut down executor
+      load.cancel(false);
+    }
 
-    if (isFirstScheduling) {
-      loadingFuture = load.thenApplyAsync((value) -> {
+    loadingFuture = load.thenApplyAsync((value) -> {
+      if (!task.isCancelled()) {
+        binding.projectModel(value);//reads the model paths in the executor, the fx thread only assigns them
+      }
+      return value;
+    }, executor).thenApplyAsync((value) -> {
+      if (!task.isCancelled()) {
         log.debug("Loaded model '{}'", value);
         setModel(value);
-        return value;
-      }, javaFXExecutor).thenAcceptAsync((value) -> {
-        try {
+      }
+      return value;
+    }, javaFXExecutor).thenAcceptAsync((value) -> {
+      try {
+        if (!task.isCancelled()) {
           eventBus.post(new ActivityLoadFinishedEvent(value));
-        } finally {
-          finishExecution();
         }
-      }, javaFXExecutor).exceptionally((t) -> {
-        try {
+      } finally {
+        finishExecution(task);
+      }
+    }, javaFXExecutor).exceptionally((t) -> {
+      try {
+        if (task.isCancelled()) {
+          log.debug("Cancelled superseded load of DataSource {}", datasource);
+        } else {
           log.error("Could not load DataSource {} for activity {}", datasource, context.getCurrentActivity(), t);
-          return null;
-        } finally {
-          finishExecution();
         }
-      });
-    }
-
+        return null;
+      } finally {
+        finishExecution(task);
+      }
+    });
   }
 
-  protected void runFromQueue(Runnable runnable) {
-    CompletableFuture<Void> future = CompletableFuture.runAsync(runnable, executor);
-
-    future.thenRun(() -> finishExecution());
+  protected void runFromQueue(StoreTask task) {
+    CompletableFuture<Void> future = CompletableFuture.runAsync(task.runnable, executor);
 
-    future.exceptionally(t -> {
-      log.info("Could not execute runnable {}", runnable);
-      finishExecution();
-      return null;
+    future.whenComplete((v, t) -> {
+      if (t != null) {
+        log.info("Could not execute runnable {}", task.runnable, t);
+      }
+      finishExecution(task);
     });
   }
 
   @SuppressWarnings("unchecked")
-  protected void doSave() {
-    savingFuture = null;
+  protected void doSave(StoreTask task) {
     Object model = getModel();
 
     CompletableFuture<Object> save = CompletableFuture.supplyAsync(() -> {
@@ -226,40 +313,57 @@ public class ActivityStore {
       return model;
     }, executor);
 
-    boolean isFirstScheduling = save.getNumberOfDependents() == 0;
-
-    if (isFirstScheduling) {
-      savingFuture = save.thenApply((value) -> {
-        try {
-          log.debug("Saved model '{}'", value);
-          return value;
-        } finally {
-          finishExecution();
-        }
-      }).exceptionally((t) -> {
-        try {
-          log.error("Could not save model {} DataSource {} for activity {}", model, datasource, context.getCurrentActivity(), t);
-          return null;
-        } finally {
-          finishExecution();
-        }
-      });
-    }
+    savingFuture = save.thenApply((value) -> {
+      try {
+        log.debug("Saved model '{}'", value);
+        return value;
+      } finally {
+        finishExecution(task);
+      }
+    }).exceptionally((t) -> {
+      try {
+        log.error("Could not save model {} DataSource {} for activity {}", model, datasource, context.getCurrentActivity(), t);
+        return null;
+      } finally {
+        finishExecution(task);
+      }
+    });
   }
 
+  /**
+   * A reload waiting at the end of the queue makes this call redundant.
+   * If the only pending operation is a running reload, its result is discarded. It is only cancelled if the datasource didn't start loading yet.
+   */
   public void reload() {
-    queue.add(() -> doReload());
-    advanceInQueue();
+    synchronized (this) {
+      StoreTask last = queue.peekLast();
+      if (last != null && last.operation == Operation.RELOAD) {
+        log.trace("Coalesced reload with queued reload");
+        return;
+      }
+      if (queue.isEmpty() && running.size() == 1 && running.get(0).operation == Operation.RELOAD) {
+        running.get(0).cancel();
+      }
+    }
+    enqueue(new StoreTask(Operation.RELOAD, null));
   }
 
   public void save() {
-    queue.add(() -> doSave());
-    advanceInQueue();
+    enqueue(new StoreTask(Operation.SAVE, null));
   }
 
+  /**
+   * Runs after all previously scheduled operations finished.
+   */
   public void executeCustomRunnable(Runnable runnable) {
-    queue.add(() -> runFromQueue(runnable));
-    advanceInQueue();
+    enqueue(new StoreTask(Operation.CUSTOM, runnable));
+  }
+
+  /**
+   * Like {@link #executeCustomRunnable(Runnable)}, but runs in parallel to directly preceding independent runnables.
+   */
+  public void executeIndependentRunnable(Runnable runnable) {
+    enqueue(new StoreTask(Operation.INDEPENDENT, runnable));
   }
 
   protected void waitForLoad() {
@@ -298,17 +402,28 @@ public class ActivityStore {
   }
 
   public void waitForDataSource() {
+    long start = System.nanoTime();
     waitForLoad();
     waitForSave();
-    while (!queue.isEmpty()) {
+    if (!Platform.isFxApplicationThread()) {//the queue can't advance while we block the fx thread
+      synchronized (this) {
+        while (!isIdle()) {
+          try {
+            wait();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            break;
+          }
+        }
+      }
       waitForLoad();
       waitForSave();
-      try {
-        Thread.sleep(100);
-      } catch (InterruptedException e) {
-        //
-      }
     }
+    waitStatistics.recordSince(start);
+  }
+
+  public WaitStatistics getWaitStatistics() {
+    return waitStatistics;
   }
 
   public boolean isLoading() {
@@ -319,7 +434,87 @@ public class ActivityStore {
     return loading;
   }
 
+  /**
+   * @return operations waiting to be started
+   */
+  public synchronized int getQueueDepth() {
+    return queue.size();
+  }
+
+  public int getMaxQueueDepth() {
+    return maxQueueDepth;
+  }
+
+  /**
+   * @return time from scheduling an operation until it finished
+   */
+  public WaitStatistics getLatency(Operation operation) {
+    return latencies.get(operation);
+  }
+
+  /**
+   * Queued reloads are dropped, saves and custom runnables are still executed.
+   */
   public void stop() {
     stopping.set(true);
+    synchronized (this) {
+      queue.removeIf(t -> t.operation == Operation.RELOAD);
+      if (isIdle()) {
+        notifyAll();
+      }
+    }
+  }
+
+  protected class StoreTask {
+    protected final Operation operation;
+    protected final Runnable runnable;
+    protected final long enqueued = System.nanoTime();
+    protected final AtomicBoolean finished = new AtomicBoolean();
+    protected volatile boolean cancelled;
+    protected volatile Runnable cancellation;
+
+    protected StoreTask(Operation operation, Runnable runnable) {
+      this.operation = operation;
+      this.runnable = runnable;
+    }
+
+    protected void start() {
+      switch (operation) {
+        case RELOAD:
+          doReload(this);
+          break;
+        case SAVE:
+          doSave(this);
+          break;
+        case CUSTOM:
+        case INDEPENDENT:
+          runFromQueue(this);
+          break;
+      }
+    }
+
+    protected void cancel() {
+      cancelled = true;
+      Runnable cancel = cancellation;
+      if (cancel != null) {
+        cancel.run();
+      }
+    }
+
+    public boolean isCancelled() {
+      return cancelled;
+    }
+
+    /**
+     * @return true for the first call
+     */
+    protected boolean finish() {
+      return finished.compareAndSet(false, true);
+    }
+
+    @Override
+    public String toString() {
+      return "StoreTask{" + operation + (cancelled ? ", cancelled" : "") + "}";
+    }
   }
 }
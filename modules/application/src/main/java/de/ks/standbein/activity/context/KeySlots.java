@@ -0,0 +1,37 @@
+/*
+ * Copyright [2014] [Christian Loehnert, krampenschiesser@gmail.com]
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.ks.standbein.activity.context;
+
+import com.google.inject.Key;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Assigns every scoped key a fixed index into the instance arrays of the {@link ActivityHolder}s.
+ */
+class KeySlots {
+  protected final ConcurrentHashMap<Key<?>, Integer> slots = new ConcurrentHashMap<>();
+  protected final AtomicInteger count = new AtomicInteger();
+
+  int get(Key<?> key) {
+    Integer slot = slots.get(key);
+    if (slot == null) {
+      slot = slots.computeIfAbsent(key, k -> count.getAndIncrement());
+    }
+    return slot;
+  }
+}
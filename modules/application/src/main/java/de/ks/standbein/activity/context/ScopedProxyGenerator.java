@@ -0,0 +1,99 @@
+/*
+ * Copyright [2014] [Christian Loehnert, krampenschiesser@gmail.com]
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.ks.standbein.activity.context;
+
+import javassist.*;
+import javassist.bytecode.AccessFlag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+
+/**
+ * Generates subclasses that delegate every overridable method directly to the instance of the current activity:
+ * <pre>
+ * public Object getValue() {
+ *   return ((Bean) source.getCurrentInstance()).getValue();
+ * }
+ * </pre>
+ * The generated class is defined in the package and classloader of the proxied class, so protected and package private methods work as well.
+ */
+class ScopedProxyGenerator {
+  private static final Logger log = LoggerFactory.getLogger(ScopedProxyGenerator.class);
+  static final String SUFFIX = "$$ActivityScoped";
+  static final String SOURCE_FIELD = "source";
+
+  private static final ClassValue<Class<?>> proxyClasses = new ClassValue<Class<?>>() {
+    @Override
+    protected Class<?> computeValue(Class<?> type) {
+      try {
+        return generate(type);
+      } catch (NotFoundException | CannotCompileException e) {
+        log.error("Could not generate activity scoped proxy for {}", type.getName(), e);
+        throw new RuntimeException(e);
+      }
+    }
+  };
+
+  static Class<?> getProxyClass(Class<?> clazz) {
+    return proxyClasses.get(clazz);
+  }
+
+  static boolean canGenerate(Class<?> clazz) {
+    return !Modifier.isFinal(clazz.getModifiers()) && !clazz.isInterface() && clazz.getClassLoader() != null;
+  }
+
+  private static Class<?> generate(Class<?> clazz) throws NotFoundException, CannotCompileException {
+    ClassPool pool = new ClassPool(true);
+    pool.appendClassPath(new LoaderClassPath(clazz.getClassLoader()));
+    pool.appendClassPath(new ClassClassPath(ScopedInstanceSource.class));
+
+    CtClass superClass = pool.get(clazz.getName());
+    CtClass proxy = pool.makeClass(clazz.getName() + SUFFIX, superClass);
+    proxy.addField(CtField.make("public " + ScopedInstanceSource.class.getName() + " " + SOURCE_FIELD + ";", proxy));
+
+    String delegate = "((" + clazz.getName() + ") " + SOURCE_FIELD + ".getCurrentInstance())";
+    for (CtMethod method : superClass.getMethods()) {
+      if (!isOverridable(method, superClass)) {
+        continue;
+      }
+      CtMethod override = new CtMethod(method.getReturnType(), method.getName(), method.getParameterTypes(), proxy);
+      override.setModifiers(method.getModifiers() & (Modifier.PUBLIC | Modifier.PROTECTED | Modifier.VARARGS));
+      override.setExceptionTypes(method.getExceptionTypes());
+      if (method.getName().equals("toString") && method.getParameterTypes().length == 0) {
+        override.setBody("{ return " + SOURCE_FIELD + ".describeCurrentInstance(); }");
+      } else {
+        override.setBody("{ return ($r) " + delegate + "." + method.getName() + "($$); }");
+      }
+      proxy.addMethod(override);
+    }
+    log.debug("Generated activity scoped proxy {}", proxy.getName());
+    return proxy.toClass(clazz.getClassLoader(), clazz.getProtectionDomain());
+  }
+
+  private static boolean isOverridable(CtMethod method, CtClass proxied) {
+    int modifiers = method.getModifiers();
+    if (Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers) || Modifier.isPrivate(modifiers)) {
+      return false;
+    } else if ((modifiers & AccessFlag.SYNTHETIC) != 0 || method.getName().equals("finalize")) {
+      return false;
+    } else if (Modifier.isPackage(modifiers) || Modifier.isProtected(modifiers)) {//can only be invoked on other instances from the same package
+      return Objects.equals(method.getDeclaringClass().getPackageName(), proxied.getPackageName());
+    } else {
+      return true;
+    }
+  }
+}
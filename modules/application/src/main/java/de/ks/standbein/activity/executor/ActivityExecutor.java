@@ -15,6 +15,8 @@
 package de.ks.standbein.activity.executor;
 
 import de.ks.executor.CancelRejection;
+import de.ks.executor.TaskCounter;
+import de.ks.executor.WaitStatistics;
 import de.ks.standbein.activity.context.ActivityContext;
 import de.ks.standbein.activity.context.ActivityScoped;
 import de.ks.standbein.module.ActivityContextModule;
@@ -28,6 +30,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 @ActivityScoped
 public class ActivityExecutor implements ScheduledExecutorService {
@@ -36,105 +39,160 @@ public class ActivityExecutor implements ScheduledExecutorService {
 
   private final AtomicInteger threadCount = new AtomicInteger();
   private final Provider<ActivityContext> context;
+  private final String activityId;
+  private final TaskCounter running = new TaskCounter();
+  private final WaitStatistics waitStatistics = new WaitStatistics("ActivityExecutor.waitForAllTasksDone");
 
   @Inject
   public ActivityExecutor(Provider<ActivityContext> context, @Named(ActivityContextModule.EXECUTOR_COREPOOLSIZE) int corePoolSize, @Named(ActivityContextModule.EXECUTOR_MAXPOOLSIZE) int maximumPoolSize) {
     this.context = context;
+    this.activityId = context.get().getCurrentActivity();
     delegate = new ScheduledThreadPoolExecutor(corePoolSize, new ThreadFactory() {
       @Override
       public Thread newThread(Runnable r) {
         Thread thread = new Thread(r);
         int id = threadCount.incrementAndGet();
-        thread.setName(context.get().getCurrentActivity() + "-" + String.format("%02d", id));
+        thread.setName(activityId + "-" + String.format("%02d", id));
         thread.setDaemon(true);
         thread.setUncaughtExceptionHandler((t, e) -> {
           log.error("Error during running thread ", e);
         });
         return thread;
       }
-    });
+    }) {
+      @Override
+      protected void beforeExecute(Thread t, Runnable r) {
+        running.increment();
+        super.beforeExecute(t, r);
+      }
+
+      @Override
+      protected void afterExecute(Runnable r, Throwable t) {
+        super.afterExecute(r, t);
+        running.decrement();
+      }
+    };
     delegate.setMaximumPoolSize(maximumPoolSize);
     delegate.setKeepAliveTime(1, TimeUnit.MINUTES);
     delegate.setRejectedExecutionHandler(new CancelRejection());
   }
 
   public String getName() {
-    return context.get().getCurrentActivity();
+    return activityId;
   }
 
   public void waitForAllTasksDone() {
-    while (!delegate.isShutdown() && delegate.getActiveCount() > 0) {
-      try {
-        TimeUnit.MILLISECONDS.sleep(100);
-      } catch (InterruptedException e) {
-        log.trace("Got interrupted while waiting for tasks.", e);
-      }
+    long start = System.nanoTime();
+    try {
+      running.awaitZero(delegate::isShutdown);
+    } catch (InterruptedException e) {
+      log.trace("Got interrupted while waiting for tasks.", e);
+      Thread.currentThread().interrupt();
+    } finally {
+      waitStatistics.recordSince(start);
     }
   }
 
+  public WaitStatistics getWaitStatistics() {
+    return waitStatistics;
+  }
+
+  /**
+   * Tasks submitted while the activity is only prepared in the background run bound to it.
+   * Once it is started the tasks run unbound, so the activity context keeps its lock-free lookup.
+   */
+  protected Runnable bind(Runnable command) {
+    return () -> {
+      ActivityContext activityContext = context.get();
+      if (activityContext.isPrepared(activityId)) {
+        activityContext.runInActivity(activityId, command);
+      } else {
+        command.run();
+      }
+    };
+  }
+
+  protected <T> Callable<T> bind(Callable<T> callable) {
+    return () -> {
+      ActivityContext activityContext = context.get();
+      if (activityContext.isPrepared(activityId)) {
+        return activityContext.callInActivity(activityId, callable);
+      } else {
+        return callable.call();
+      }
+    };
+  }
+
+  protected <T> List<Callable<T>> bind(Collection<? extends Callable<T>> tasks) {
+    return tasks.stream().map(this::bind).collect(Collectors.toList());
+  }
+
   @Override
   public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
-    return delegate.schedule(command, delay, unit);
+    return delegate.schedule(bind(command), delay, unit);
   }
 
   @Override
   public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
-    return delegate.schedule(callable, delay, unit);
+    return delegate.schedule(bind(callable), delay, unit);
   }
 
   @Override
   public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
-    return delegate.scheduleAtFixedRate(command, initialDelay, period, unit);
+    return delegate.scheduleAtFixedRate(bind(command), initialDelay, period, unit);
   }
 
   @Override
   public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
-    return delegate.scheduleWithFixedDelay(command, initialDelay, delay, unit);
+    return delegate.scheduleWithFixedDelay(bind(command), initialDelay, delay, unit);
   }
 
   @Override
   public void execute(Runnable command) {
-    delegate.execute(command);
+    delegate.execute(bind(command));
   }
 
   @Override
   public Future<?> submit(Runnable task) {
-    return delegate.submit(task);
+    return delegate.submit(bind(task));
   }
 
   @Override
   public <T> Future<T> submit(Runnable task, T result) {
-    return delegate.submit(task, result);
+    return delegate.submit(bind(task), result);
   }
 
   @Override
   public <T> Future<T> submit(Callable<T> task) {
-    return delegate.submit(task);
+    return delegate.submit(bind(task));
   }
 
   @Override
   public void shutdown() {
     delegate.shutdown();
+    running.signal();
   }
 
   @Override
   public List<Runnable> shutdownNow() {
-    return delegate.shutdownNow();
+    List<Runnable> retval = delegate.shutdownNow();
+    running.signal();
+    return retval;
   }
 
   @Override
   public <T> T invokeAny(Collection<? extends Callable<T>> tasks) throws InterruptedException, ExecutionException {
-    return delegate.invokeAny(tasks);
+    return delegate.invokeAny(bind(tasks));
   }
 
   @Override
   public <T> T invokeAny(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
-    return delegate.invokeAny(tasks, timeout, unit);
+    return delegate.invokeAny(bind(tasks), timeout, unit);
   }
 
   @Override
   public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks) throws InterruptedException {
-    return delegate.invokeAll(tasks);
+    return delegate.invokeAll(bind(tasks));
   }
 
   public void setCorePoolSize(int coreSize) {
@@ -147,7 +205,7 @@ public class ActivityExecutor implements ScheduledExecutorService {
 
   @Override
   public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit) throws InterruptedException {
-    return delegate.invokeAll(tasks, timeout, unit);
+    return delegate.invokeAll(bind(tasks), timeout, unit);
   }
 
   @Override
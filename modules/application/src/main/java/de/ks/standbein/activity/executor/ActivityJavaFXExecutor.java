@@ -14,9 +14,35 @@
  */
 package de.ks.standbein.activity.executor;
 
-import de.ks.standbein.activity.context.ActivityScoped;
 import de.ks.executor.JavaFXExecutorService;
+import de.ks.executor.JavaFXPriority;
+import de.ks.standbein.activity.context.ActivityContext;
+import de.ks.standbein.activity.context.ActivityScoped;
+
+import javax.inject.Inject;
 
 @ActivityScoped
 public class ActivityJavaFXExecutor extends JavaFXExecutorService {
+  private final ActivityContext context;
+  private final String activityId;
+
+  @Inject
+  public ActivityJavaFXExecutor(ActivityContext context) {
+    this.context = context;
+    this.activityId = context.getCurrentActivity();
+  }
+
+  /**
+   * Like {@link ActivityExecutor}, tasks only run bound to the activity while it is prepared in the background.
+   */
+  @Override
+  public void execute(Runnable command, JavaFXPriority priority) {
+    super.execute(() -> {
+      if (context.isPrepared(activityId)) {
+        context.runInActivity(activityId, command);
+      } else {
+        command.run();
+      }
+    }, priority);
+  }
 }
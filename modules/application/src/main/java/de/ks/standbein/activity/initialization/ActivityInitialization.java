@@ -31,6 +31,7 @@ import javax.inject.Provider;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
@@ -40,9 +41,16 @@ import java.util.stream.Collectors;
 public class ActivityInitialization {
   private static final Logger log = LoggerFactory.getLogger(ActivityInitialization.class);
 
-  protected final ConcurrentHashMap<Class<?>, LinkedList<Pair<Object, Node>>> controllers = new ConcurrentHashMap<>();
-  protected final Map<Class<?>, CompletableFuture<DefaultLoader<Node, Object>>> preloads = new HashMap<>();
+  protected final ConcurrentHashMap<Class<?>, List<Pair<Object, Node>>> controllers = new ConcurrentHashMap<>();
+  protected final ConcurrentHashMap<Class<?>, CompletableFuture<DefaultLoader<Node, Object>>> preloads = new ConcurrentHashMap<>();
+  /**
+   * Controllers created by the fxml load running in the current thread, including nested and additional controllers.
+   */
   protected final ThreadLocal<List<Object>> currentlyLoadedControllers = ThreadLocal.withInitial(ArrayList::new);
+  /**
+   * Controllers of this activity whose fxml could only be loaded in the JavaFX thread, they skip the failing attempt on the next load.
+   */
+  protected final Set<Class<?>> fxBoundControllers = ConcurrentHashMap.newKeySet();
   protected final List<DatasourceCallback> dataStoreCallbacks = new ArrayList<>();
   protected final List<ActivityCallback> activityCallbacks = new ArrayList<>();
 
@@ -59,14 +67,66 @@ public class ActivityInitialization {
     initalizeControllers();
   }
 
+  /**
+   * Schedules the initial and all additional controllers in the order given by {@link LoadAfter},
+   * each one as soon as its dependencies are loaded.
+   */
   protected void loadControllers(ActivityCfg activityCfg) {
-    loadController(activityCfg.getInitialController());
-    activityCfg.getAdditionalControllers().forEach(this::loadController);
-    preloads.values().forEach(CompletableFuture::join);
+    LinkedHashSet<Class<?>> scheduled = new LinkedHashSet<>();
+    scheduled.add(activityCfg.getInitialController());
+    scheduled.addAll(activityCfg.getAdditionalControllers());
+
+    List<CompletableFuture<?>> loads = new ArrayList<>();
+    for (Class<?> controllerClass : orderByDependencies(scheduled)) {
+      loads.add(loadController(controllerClass, getDependencies(controllerClass, scheduled)));
+    }
+    CompletableFuture.allOf(loads.toArray(new CompletableFuture[loads.size()])).join();
+  }
+
+  /**
+   * @return the given controllers, each one after its {@link LoadAfter} dependencies
+   * @throws IllegalStateException if the dependencies are cyclic
+   */
+  static List<Class<?>> orderByDependencies(Collection<Class<?>> controllers) {
+    LinkedHashSet<Class<?>> ordered = new LinkedHashSet<>();
+    for (Class<?> controller : controllers) {
+      visit(controller, controllers, ordered, new LinkedHashSet<>());
+    }
+    return new ArrayList<>(ordered);
+  }
+
+  private static void visit(Class<?> controller, Collection<Class<?>> controllers, Set<Class<?>> ordered, LinkedHashSet<Class<?>> path) {
+    if (ordered.contains(controller)) {
+      return;
+    }
+    if (!path.add(controller)) {
+      throw new IllegalStateException("Cyclic @" + LoadAfter.class.getSimpleName() + " dependency: " + path + " -> " + controller.getName());
+    }
+    for (Class<?> dependency : getDependencies(controller, controllers)) {
+      visit(dependency, controllers, ordered, path);
+    }
+    path.remove(controller);
+    ordered.add(controller);
+  }
+
+  static List<Class<?>> getDependencies(Class<?> controller, Collection<Class<?>> controllers) {
+    LoadAfter loadAfter = controller.getAnnotation(LoadAfter.class);
+    if (loadAfter == null) {
+      return Collections.emptyList();
+    }
+    List<Class<?>> retval = new ArrayList<>();
+    for (Class<?> dependency : loadAfter.value()) {
+      if (controllers.contains(dependency)) {
+        retval.add(dependency);
+      } else {
+        log.warn("{} should be loaded after {} which is not part of the activity", controller.getName(), dependency.getName());
+      }
+    }
+    return retval;
   }
 
   private boolean shouldLoadInFXThread(Class<?> clazz) {
-    return clazz.isAnnotationPresent(LoadInFXThread.class);
+    return clazz.isAnnotationPresent(LoadInFXThread.class) || fxBoundControllers.contains(clazz);
   }
 
   public <T> void loadAdditionalController(Class<T> controllerClass, Consumer<Node> viewConsumer, Consumer<T> controllerConsumer) {
@@ -98,49 +158,55 @@ public class ActivityInitialization {
     return completed;
   }
 
-  private void loadController(Class<?> controllerClass) {
-    JavaFXExecutorService javaFXExecutor = controller.getJavaFXExecutor();
-    ExecutorService executorService;
-    if (shouldLoadInFXThread(controllerClass)) {
-      executorService = javaFXExecutor;
-    } else {
-      executorService = controller.getExecutorService();
-    }
+  private CompletableFuture<DefaultLoader<Node, Object>> loadController(Class<?> controllerClass, List<Class<?>> dependencies) {
+    return preloads.computeIfAbsent(controllerClass, clazz -> {
+      JavaFXExecutorService javaFXExecutor = controller.getJavaFXExecutor();
+      boolean inFXThread = shouldLoadInFXThread(clazz);
+      ExecutorService executorService = inFXThread ? javaFXExecutor : controller.getExecutorService();
 
-    if (!preloads.containsKey(controllerClass)) {
-      CompletableFuture<DefaultLoader<Node, Object>> loaderFuture = CompletableFuture.supplyAsync(getDefaultLoaderSupplier(controllerClass), executorService).exceptionally((t) -> {
-        if (t.getCause() instanceof RuntimeException && t.getCause().getCause() instanceof LoadException) {
-          currentlyLoadedControllers.get().forEach(eventBus::unregister);
-          currentlyLoadedControllers.get().clear();
-          log.info("Last load of {} failed, will try again in JavaFX Thread", loaderProvider.get().load(controllerClass).getFxmlFile());
-          return javaFXExecutor.invokeInJavaFXThread(() -> getDefaultLoaderSupplier(controllerClass).get());
+      CompletableFuture<?>[] before = dependencies.stream().map(preloads::get).toArray(CompletableFuture[]::new);
+      Supplier<DefaultLoader<Node, Object>> load = getDefaultLoaderSupplier(clazz);
+      return CompletableFuture.allOf(before).thenApplyAsync(v -> {
+        try {
+          return load.get();
+        } catch (RuntimeException e) {
+          if (!inFXThread && e.getCause() instanceof LoadException) {
+            log.info("Load of {} failed, will load it in the JavaFX Thread for this activity", clazz.getName());
+            fxBoundControllers.add(clazz);
+            return javaFXExecutor.invokeInJavaFXThread(load::get);
+          }
+          throw e;
         }
-        throw new RuntimeException(t);
-      });
-
-      preloads.put(controllerClass, loaderFuture);
-    }
+      }, executorService);
+    });
   }
 
   private Supplier<DefaultLoader<Node, Object>> getDefaultLoaderSupplier(Class<?> controllerClass) {
     return () -> {
-      DefaultLoader<Node, Object> loader = loaderProvider.get();
-      loader.load((Class<Object>) controllerClass);
-      Node view = loader.getView();
-
-      currentlyLoadedControllers.get().forEach((c) -> {
-        assert c != null;
-        log.debug("Registering controller {} with node {}", c, view);
-        controllers.putIfAbsent(c.getClass(), new LinkedList<>());
-
-        LinkedList<Pair<Object, Node>> registered = controllers.get(c.getClass());
-        boolean contained = registered.stream().filter(p -> p.getLeft().equals(c)).findAny().isPresent();
-        if (!contained) {
-          registered.add(Pair.of(c, view));
-        }
-      });
-      currentlyLoadedControllers.get().clear();
-      return loader;
+      List<Object> outer = currentlyLoadedControllers.get();
+      List<Object> loadedControllers = new ArrayList<>();
+      currentlyLoadedControllers.set(loadedControllers);
+      try {
+        DefaultLoader<Node, Object> loader = loaderProvider.get();
+        loader.load((Class<Object>) controllerClass);
+        Node view = loader.getView();
+
+        loadedControllers.forEach((c) -> {
+          assert c != null;
+          log.debug("Registering controller {} with node {}", c, view);
+          controllers.compute(c.getClass(), (k, registered) -> {
+            List<Pair<Object, Node>> retval = registered == null ? new CopyOnWriteArrayList<>() : registered;
+            boolean contained = retval.stream().filter(p -> p.getLeft().equals(c)).findAny().isPresent();
+            if (!contained) {
+              retval.add(Pair.of(c, view));
+            }
+            return retval;
+          });
+        });
+        return loader;
+      } finally {
+        currentlyLoadedControllers.set(outer);//failed loads are discarded together with their controllers
+      }
     };
   }
 
@@ -168,7 +234,7 @@ public class ActivityInitialization {
     if (!controllers.containsKey(targetController)) {
       throw new IllegalArgumentException("Controller " + targetController.getName() + " is not registered. Registered are " + controllers.keySet());
     }
-    LinkedList<Pair<Object, Node>> ctrls = controllers.get(targetController);
+    List<Pair<Object, Node>> ctrls = controllers.get(targetController);
     if (ctrls.isEmpty()) {
       return null;
     } else if (ctrls.size() == 1) {
@@ -183,7 +249,7 @@ public class ActivityInitialization {
     if (!controllers.containsKey(targetController)) {
       throw new IllegalArgumentException("Controller " + targetController + " is not registered. Registered are " + controllers.keySet());
     }
-    LinkedList<Pair<Object, Node>> ctrls = controllers.get(targetController);
+    List<Pair<Object, Node>> ctrls = controllers.get(targetController);
     if (ctrls.isEmpty()) {
       return null;
     } else if (ctrls.size() == 1) {
@@ -14,11 +14,15 @@
  */
 package de.ks.standbein.activity.loading;
 
+import de.ks.executor.TaskCounter;
+
+import java.util.List;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 public class ActivityLoadingExecutor extends ThreadPoolExecutor {
+  protected final TaskCounter running = new TaskCounter();
 
   public ActivityLoadingExecutor() {
     super(1, 1, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ActivityControllerThreadFactory());
@@ -32,4 +36,36 @@ public class ActivityLoadingExecutor extends ThreadPoolExecutor {
       super.execute(command);
     }
   }
+
+  @Override
+  protected void beforeExecute(Thread t, Runnable r) {
+    running.increment();
+    super.beforeExecute(t, r);
+  }
+
+  @Override
+  protected void afterExecute(Runnable r, Throwable t) {
+    super.afterExecute(r, t);
+    running.decrement();
+  }
+
+  /**
+   * Blocks until no loading task is running anymore or the executor is shut down.
+   */
+  public void waitForRunningTasks() throws InterruptedException {
+    running.awaitZero(this::isShutdown);
+  }
+
+  @Override
+  public void shutdown() {
+    super.shutdown();
+    running.signal();
+  }
+
+  @Override
+  public List<Runnable> shutdownNow() {
+    List<Runnable> retval = super.shutdownNow();
+    running.signal();
+    return retval;
+  }
 }
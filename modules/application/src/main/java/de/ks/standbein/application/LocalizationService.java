@@ -0,0 +1,45 @@
+/*
+ * Copyright [2014] [Christian Loehnert, krampenschiesser@gmail.com]
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.ks.standbein.application;
+
+import de.ks.standbein.i18n.Localized;
+import de.ks.standbein.launch.Service;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Preloads the resource bundles used in the last run in parallel before the UI is started
+ * and records the used ones for the next start when stopped.
+ */
+@Singleton
+public class LocalizationService extends Service {
+  private final Localized localized;
+
+  @Inject
+  public LocalizationService(Localized localized) {
+    this.localized = localized;
+  }
+
+  @Override
+  protected void doStart() {
+    localized.preload(executorService).join();
+  }
+
+  @Override
+  protected void doStop() {
+    localized.writePackageIndex();
+  }
+}
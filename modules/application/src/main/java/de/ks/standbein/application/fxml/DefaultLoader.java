@@ -18,23 +18,20 @@ package de.ks.standbein.application.fxml;
 import de.ks.standbein.i18n.Localized;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
-import javafx.fxml.JavaFXBuilderFactory;
 import javafx.scene.Node;
-import javafx.scene.Parent;
 import javafx.scene.control.*;
 import javafx.scene.input.Clipboard;
 import javafx.scene.input.DataFormat;
 import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
 import java.util.HashMap;
-import java.util.LinkedList;
-import java.util.Locale;
-import java.util.ResourceBundle;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -43,22 +40,22 @@ import java.util.concurrent.atomic.AtomicBoolean;
  */
 public class DefaultLoader<V extends Node, C> {
   private static final Logger log = LoggerFactory.getLogger(DefaultLoader.class);
+  static final String COPY_MENU_ROOT = DefaultLoader.class.getName() + ".copyMenuRoot";
 
   private Class<?> controller;
   private URL fxmlFile;
   protected final AtomicBoolean loaded = new AtomicBoolean(false);
 
   private final ControllerFactory controllerFactory;
-  private final ResourceBundle resourceBundle;
   private final Localized localized;
 
   private C loadedInstance;
   private FXMLLoader loader;
+  private LocalizedTextBundle textBundle;
 
   @Inject
-  public DefaultLoader(ControllerFactory controllerFactory, ResourceBundle resourceBundle, Localized localized) {
+  public DefaultLoader(ControllerFactory controllerFactory, Localized localized) {
     this.controllerFactory = controllerFactory;
-    this.resourceBundle = resourceBundle;
     this.localized = localized;
   }
 
@@ -70,11 +67,8 @@ public class DefaultLoader<V extends Node, C> {
       throw new FXMLFileNotFoundException("FXML file not found, is null!");
     }
 
-    ResourceBundle bundleToUse = resourceBundle;
-    if (controller != null) {
-      bundleToUse = localized.getBundle(controller);
-    }
-    loader = new FXMLLoader(fxmlFile, bundleToUse, new JavaFXBuilderFactory(), controllerFactory);
+    textBundle = new LocalizedTextBundle(localized, controller);
+    loader = new FXMLLoader(fxmlFile, textBundle, FxmlCache.getBuilderFactory(), controllerFactory);
   }
 
   public DefaultLoader<V, C> load(URL fxmlFile) {
@@ -82,7 +76,7 @@ public class DefaultLoader<V extends Node, C> {
   }
 
   public DefaultLoader<V, C> load(Class<C> controller) {
-    return load(controller, guessFxmlFile(controller));
+    return load(controller, FxmlCache.getFxmlFile(controller));
   }
 
   @SuppressWarnings("unchecked")
@@ -94,13 +88,17 @@ public class DefaultLoader<V extends Node, C> {
         if (fxmlFile == null) {
           Object instance = controllerFactory.call(controller);
           if (instance instanceof Initializable) {
-            ((Initializable) instance).initialize(null, resourceBundle);
+            ((Initializable) instance).initialize(null, localized.getBundle(controller));
           }
           this.loadedInstance = (C) instance;
         } else {
           log.debug("Loading fxml file {}", fxmlFile);
-          Node loadedNode = loader.load();
+          Node loadedNode;
+          try (InputStream stream = FxmlCache.openStream(fxmlFile)) {
+            loadedNode = loader.load(stream);
+          }
           if (loadedNode != null) {
+            textBundle.followTexts(loadedNode);
             fillLabelCopyMenu(loadedNode);
           }
           loaded.set(true);
@@ -113,45 +111,52 @@ public class DefaultLoader<V extends Node, C> {
     return this;
   }
 
+  /**
+   * Installs a single filter on the loaded root, the clicked label is only resolved on a secondary click.
+   */
   protected void fillLabelCopyMenu(Node loadedNode) {
-    LinkedList<Node> stack = new LinkedList<>();
-    stack.add(loadedNode);
-
-    while (!stack.isEmpty()) {
-      Node node = stack.pollFirst();
-      if (node instanceof Parent) {
-        stack.addAll(((Parent) node).getChildrenUnmodifiable());
-      }
-      if (node instanceof TabPane) {
-        ((TabPane) node).getTabs().forEach(t -> {
-          log.info("Found tab pane, child node= {}", t.getContent());
-          stack.add(t.getContent());
-        });
-      }
-      if (node instanceof Accordion) {
-        ((Accordion) node).getPanes().forEach(t -> stack.add(t.getContent()));
+    loadedNode.getProperties().put(COPY_MENU_ROOT, Boolean.TRUE);
+    loadedNode.addEventFilter(MouseEvent.MOUSE_CLICKED, e -> {
+      if (e.getButton() == MouseButton.SECONDARY) {
+        Label label = findLabel(loadedNode, e.getPickResult().getIntersectedNode());
+        if (label != null) {
+          showCopyMenu(label, e);
+        }
       }
-      if (node instanceof SplitPane) {
-        ((SplitPane) node).getItems().forEach(t -> stack.add(t));
+    });
+  }
+
+  /**
+   * @return the label containing the target or null if the target is not part of a label
+   * or belongs to a nested root which handles the click itself
+   */
+  static Label findLabel(Node root, Node target) {
+    Label label = null;
+    for (Node node = target; node != null; node = node.getParent()) {
+      if (label == null) {
+        if (node instanceof Label) {
+          label = (Label) node;
+        } else if (node instanceof Control) {
+          return null;
+        }
       }
-      if (node instanceof Label) {
-        Label label = (Label) node;
-
-        label.setOnMouseClicked(e -> {
-          if (e.getButton() == MouseButton.SECONDARY) {
-            MenuItem item = new MenuItem(localized.get("copy"));
-            ContextMenu contextMenu = new ContextMenu(item);
-            item.setOnAction(actionEvent -> {
-              HashMap<DataFormat, Object> content = new HashMap<>();
-              content.put(DataFormat.PLAIN_TEXT, label.getText());
-              Clipboard.getSystemClipboard().setContent(content);
-            });
-
-            contextMenu.show(label, e.getScreenX(), e.getScreenY());
-          }
-        });
+      if (node.hasProperties() && node.getProperties().containsKey(COPY_MENU_ROOT)) {
+        return node == root ? label : null;
       }
     }
+    return null;
+  }
+
+  protected void showCopyMenu(Label label, MouseEvent e) {
+    MenuItem item = new MenuItem(localized.get("copy"));
+    ContextMenu contextMenu = new ContextMenu(item);
+    item.setOnAction(actionEvent -> {
+      HashMap<DataFormat, Object> content = new HashMap<>();
+      content.put(DataFormat.PLAIN_TEXT, label.getText());
+      Clipboard.getSystemClipboard().setContent(content);
+    });
+
+    contextMenu.show(label, e.getScreenX(), e.getScreenY());
   }
 
   public V getView() {
@@ -192,26 +197,4 @@ public class DefaultLoader<V extends Node, C> {
       "fxmlFile=" + fxmlFile +
       '}';
   }
-
-  private static URL guessFxmlFile(Class<?> modelController) {
-    String controllerName = modelController.getSimpleName();
-    URL resource = modelController.getResource(controllerName + ".fxml");
-    if (resource == null) {
-      log.trace("Trying {}", controllerName + "View.fxml");
-      resource = modelController.getResource(controllerName + "View.fxml");
-    }
-    if (resource == null) {
-      if (controllerName.toLowerCase(Locale.ROOT).endsWith("controller")) {
-        String substring = controllerName.substring(0, controllerName.length() - "controller".length());
-
-        log.trace("Trying {}", substring + ".fxml");
-        resource = modelController.getResource(substring + ".fxml");
-        if (resource == null) {
-          log.trace("Trying {}", substring + "View.fxml");
-          resource = modelController.getResource(substring + "View.fxml");
-        }
-      }
-    }
-    return resource;
-  }
 }
@@ -0,0 +1,91 @@
+/*
+ * Copyright [2014] [Christian Loehnert, krampenschiesser@gmail.com]
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.ks.standbein.application.fxml;
+
+import com.google.common.io.ByteStreams;
+import javafx.fxml.JavaFXBuilderFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process wide cache of the fxml file belonging to a controller and the fxml content,
+ * so repeated loads of the same view don't have to probe the classpath and read the resource again.
+ * The content cache is unbounded and lives as long as the application, it only holds the views the application ships with.
+ */
+class FxmlCache {
+  private static final Logger log = LoggerFactory.getLogger(FxmlCache.class);
+
+  private static final ClassValue<Optional<URL>> fxmlFiles = new ClassValue<Optional<URL>>() {
+    @Override
+    protected Optional<URL> computeValue(Class<?> type) {
+      return Optional.ofNullable(guessFxmlFile(type));
+    }
+  };
+  private static final ConcurrentHashMap<String, byte[]> contents = new ConcurrentHashMap<>();
+  /**
+   * The builder factory caches the builder lookups per type but isn't thread safe.
+   */
+  private static final ThreadLocal<JavaFXBuilderFactory> builderFactory = ThreadLocal.withInitial(JavaFXBuilderFactory::new);
+
+  static URL getFxmlFile(Class<?> controller) {
+    return fxmlFiles.get(controller).orElse(null);
+  }
+
+  static InputStream openStream(URL fxmlFile) throws IOException {
+    byte[] content = contents.get(fxmlFile.toExternalForm());
+    if (content == null) {
+      try (InputStream stream = fxmlFile.openStream()) {
+        content = ByteStreams.toByteArray(stream);
+      }
+      contents.putIfAbsent(fxmlFile.toExternalForm(), content);
+      log.trace("Cached fxml file {}", fxmlFile);
+    }
+    return new ByteArrayInputStream(content);
+  }
+
+  static JavaFXBuilderFactory getBuilderFactory() {
+    return builderFactory.get();
+  }
+
+  private static URL guessFxmlFile(Class<?> modelController) {
+    String controllerName = modelController.getSimpleName();
+    URL resource = modelController.getResource(controllerName + ".fxml");
+    if (resource == null) {
+      log.trace("Trying {}", controllerName + "View.fxml");
+      resource = modelController.getResource(controllerName + "View.fxml");
+    }
+    if (resource == null) {
+      if (controllerName.toLowerCase(Locale.ROOT).endsWith("controller")) {
+        String substring = controllerName.substring(0, controllerName.length() - "controller".length());
+
+        log.trace("Trying {}", substring + ".fxml");
+        resource = modelController.getResource(substring + ".fxml");
+        if (resource == null) {
+          log.trace("Trying {}", substring + "View.fxml");
+          resource = modelController.getResource(substring + "View.fxml");
+        }
+      }
+    }
+    return resource;
+  }
+}
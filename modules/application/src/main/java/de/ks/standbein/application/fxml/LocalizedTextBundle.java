@@ -0,0 +1,154 @@
+/*
+ * Copyright [2014] [Christian Loehnert, krampenschiesser@gmail.com]
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.ks.standbein.application.fxml;
+
+import de.ks.standbein.i18n.Localized;
+import javafx.beans.property.StringProperty;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.control.*;
+
+import java.util.Enumeration;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ResourceBundle;
+
+/**
+ * Resource bundle for the FXMLLoader which remembers the keys it resolved,
+ * so the loaded nodes can follow locale changes without being loaded again.
+ * Every lookup returns its own string instance, a property only follows a key if it still holds exactly that instance.
+ * That way equal texts of different keys or a text set by the controller are never mixed up.
+ */
+class LocalizedTextBundle extends ResourceBundle {
+  private final Localized localized;
+  private final Class<?> owner;
+  /**
+   * Resolved text instance to its key, cleared once the texts are followed.
+   */
+  private final Map<String, String> resolved = new IdentityHashMap<>();
+  private boolean followed;
+
+  LocalizedTextBundle(Localized localized, Class<?> owner) {
+    this.localized = localized;
+    this.owner = owner;
+  }
+
+  @Override
+  protected Object handleGetObject(String key) {
+    ResourceBundle bundle = localized.getBundle(owner);
+    String text = new String(bundle.getString(key));//identity marks where this key ended up
+    if (!followed) {
+      resolved.put(text, key);
+    }
+    return text;
+  }
+
+  @Override
+  public boolean containsKey(String key) {
+    ResourceBundle bundle = localized.getBundle(owner);
+    return bundle.containsKey(key);
+  }
+
+  @Override
+  public Enumeration<String> getKeys() {
+    ResourceBundle bundle = localized.getBundle(owner);
+    return bundle.getKeys();
+  }
+
+  /**
+   * Lets every text of the loaded view which was resolved by this bundle follow its translation.
+   */
+  void followTexts(Node root) {
+    if (!resolved.isEmpty()) {
+      followNode(root);
+    }
+    resolved.clear();
+    followed = true;
+  }
+
+  private void followNode(Node node) {
+    if (node == null) {
+      return;
+    }
+    if (node instanceof Labeled) {
+      follow(((Labeled) node).textProperty());
+    }
+    if (node instanceof TextInputControl) {
+      follow(((TextInputControl) node).promptTextProperty());
+    }
+    if (node instanceof javafx.scene.control.Control) {//ResourceBundle.Control hides the import
+      javafx.scene.control.Control control = (javafx.scene.control.Control) node;
+      Tooltip tooltip = control.getTooltip();
+      if (tooltip != null) {
+        follow(tooltip.textProperty());
+      }
+      ContextMenu contextMenu = control.getContextMenu();
+      if (contextMenu != null) {
+        followItems(contextMenu.getItems());
+      }
+    }
+    if (node instanceof MenuButton) {
+      followItems(((MenuButton) node).getItems());
+    } else if (node instanceof MenuBar) {
+      followItems(((MenuBar) node).getMenus());
+    } else if (node instanceof TabPane) {
+      for (Tab tab : ((TabPane) node).getTabs()) {
+        follow(tab.textProperty());
+        followNode(tab.getContent());
+      }
+    } else if (node instanceof TableView) {
+      followColumns(((TableView<?>) node).getColumns());
+    } else if (node instanceof TreeTableView) {
+      followColumns(((TreeTableView<?>) node).getColumns());
+    } else if (node instanceof TitledPane) {
+      followNode(((TitledPane) node).getContent());
+    } else if (node instanceof ScrollPane) {
+      followNode(((ScrollPane) node).getContent());
+    } else if (node instanceof SplitPane) {
+      ((SplitPane) node).getItems().forEach(this::followNode);
+    } else if (node instanceof Accordion) {
+      ((Accordion) node).getPanes().forEach(this::followNode);
+    } else if (node instanceof ToolBar) {
+      ((ToolBar) node).getItems().forEach(this::followNode);
+    } else if (node instanceof Parent) {
+      ((Parent) node).getChildrenUnmodifiable().forEach(this::followNode);
+    }
+  }
+
+  private void followItems(List<? extends MenuItem> items) {
+    for (MenuItem item : items) {
+      follow(item.textProperty());
+      if (item instanceof Menu) {
+        followItems(((Menu) item).getItems());
+      }
+    }
+  }
+
+  private void followColumns(List<? extends TableColumnBase<?, ?>> columns) {
+    for (TableColumnBase<?, ?> column : columns) {
+      follow(column.textProperty());
+      followColumns(column.getColumns());
+    }
+  }
+
+  private void follow(StringProperty property) {
+    String value = property.get();
+    String key = value == null ? null : resolved.get(value);
+    if (key != null) {
+      localized.getLocalizedText(owner, key).follow(property);
+    }
+  }
+}
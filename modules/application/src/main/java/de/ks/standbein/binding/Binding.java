@@ -16,6 +16,7 @@ package de.ks.standbein.binding;
 
 import de.ks.standbein.reflection.PropertyPath;
 import javafx.beans.property.*;
+import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -27,6 +28,9 @@ import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.temporal.Temporal;
 import java.util.*;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -34,29 +38,43 @@ import java.util.function.Supplier;
 public class Binding {
   private static final Logger log = LoggerFactory.getLogger(Binding.class);
   private final Map<PropertyPath, Property<?>> properties = new HashMap<>();
-  private final Map<Property<?>, Pair<Function, Function>> converters = new HashMap<>();
   private final Set<StringProperty> clearOnRefresh = new HashSet<>();
+  /**
+   * Copied on every added property, so models can be projected in other threads while properties are added.
+   */
+  private volatile BoundProperty[] boundProperties = new BoundProperty[0];
+  /**
+   * Set while the binding itself assigns property values, those changes don't mark a property as modified.
+   */
+  private volatile boolean applying;
+  private volatile ModelProjection projection;
 
   public void bindChangedModel(ObservableValue<?> observable, Object oldValue, Object newValue) {
     clearOnRefresh.forEach(c -> c.set(""));
 
     log.debug("Binding changed model old={}, new={}", oldValue, newValue);
     if (newValue != null) {
-      applyModelToProperties(newValue);
+      ModelProjection projected = projection;
+      projection = null;
+      if (projected != null && projected.model == newValue && projected.size() == boundProperties.length) {
+        commit(projected);
+      } else {
+        applyModelToProperties(newValue);
+      }
     } else {
       resetProperties();
     }
   }
 
   protected void resetProperties() {
-    properties.entrySet().forEach(entry -> {
-      @SuppressWarnings("unchecked")
-      Property<Object> property = (Property<Object>) entry.getValue();
+    for (BoundProperty bound : boundProperties) {
+      Property<Object> property = bound.property;
       if (!property.isBound()) {
         Object defaultValue = getDefaultValue(property);
-        property.setValue(defaultValue);
+        assign(property, defaultValue);
       }
-    });
+      bound.state.reset();
+    }
   }
 
   private Object getDefaultValue(Property property) {
@@ -81,26 +99,83 @@ public class Binding {
     return null;
   }
 
-  @SuppressWarnings("unchecked")
+  /**
+   * Reads and converts all bound values of the model in the current thread.
+   * When the same model is bound afterwards (in the JavaFX thread) only the precomputed values are assigned.
+   */
+  public void projectModel(Object model) {
+    projection = model == null ? null : project(model);
+  }
+
   protected void applyModelToProperties(Object model) {
-    properties.entrySet().forEach(entry -> {
-      Object value = entry.getKey().getValue(model);
-      @SuppressWarnings("unchecked")
-      Property<Object> property = (Property<Object>) entry.getValue();
-      Pair<Function, Function> converter = converters.get(property);
-      if (converter != null && value != null) {
-        value = converter.getKey().apply(value);
+    commit(project(model));
+  }
+
+  protected ModelProjection project(Object model) {
+    BoundProperty[] snapshot = boundProperties;
+    ModelProjection retval = new ModelProjection(model, snapshot.length);
+    for (BoundProperty bound : snapshot) {
+      Object value = bound.path.getValue(model);
+      Object converted = ModelProjection.NOT_CONVERTED;
+      if (bound.state.modified || !bound.state.isApplied(value)) {
+        converted = convert(bound, value);
       }
-      if (!property.isBound()) {
-        property.setValue(value);
+      retval.add(bound, value, converted);
+    }
+    return retval;
+  }
+
+  /**
+   * Only pushes values which changed in the model since the last application or which were modified in the UI.
+   */
+  protected void commit(ModelProjection projection) {
+    for (int i = 0; i < projection.size(); i++) {
+      BoundProperty bound = projection.properties[i];
+      Object modelValue = projection.modelValues[i];
+      PropertyState state = bound.state;
+      if (!state.modified && state.isApplied(modelValue)) {
+        continue;
+      }
+      Object value = projection.values[i];
+      if (value == ModelProjection.NOT_CONVERTED) {
+        value = convert(bound, modelValue);
       }
-    });
+      if (!bound.property.isBound()) {
+        assign(bound.property, value);
+      }
+      state.applied(modelValue);
+    }
   }
 
+  @SuppressWarnings("unchecked")
+  private Object convert(BoundProperty bound, Object value) {
+    Pair<Function, Function> converter = bound.converter;
+    if (converter != null && value != null) {
+      return converter.getKey().apply(value);
+    }
+    return value;
+  }
+
+  private void assign(Property<Object> property, Object value) {
+    applying = true;
+    try {
+      property.setValue(value);
+    } finally {
+      applying = false;
+    }
+  }
+
+  /**
+   * Only writes back properties which were modified in the UI since the model was last applied.
+   * After the properties were reset (no model bound) all of them are written back, so a new model gets the defaults as well.
+   */
   public void applyControllerContent(Object model) {
-    properties.entrySet().forEach(entry -> {
-      @SuppressWarnings("unchecked")
-      Property<Object> property = (Property<Object>) entry.getValue();
+    for (BoundProperty bound : boundProperties) {
+      Property<Object> property = bound.property;
+      PropertyState state = bound.state;
+      if (!state.modified && !state.isReset()) {
+        continue;
+      }
       Object value = property.getValue();
       if (log.isDebugEnabled()) {
         String valueString = "";
@@ -110,10 +185,10 @@ public class Binding {
             valueString = valueString.substring(0, 100);
           }
         }
-        log.debug("For key '{}' setting property {} to {}", entry.getKey().getPropertyPath(), property, valueString);
+        log.debug("For key '{}' setting property {} to {}", bound.path.getPropertyPath(), property, valueString);
       }
-      entry.getKey().setValue(model, value);
-    });
+      bound.path.setValue(model, value);
+    }
   }
 
   public <T extends Object> StringProperty getStringProperty(Class<T> clazz, Function<T, String> propertyResolution) {
@@ -159,16 +234,30 @@ public class Binding {
   @SuppressWarnings("unchecked")
   protected <T extends Property, V, K, O> T addProperty(Class<V> clazz, Function<V, K> function, Supplier<T> supplier, Function<K, O> model2Controller, Function<O, K> controller2Model) {
     PropertyPath path = PropertyPath.ofTypeSafe(clazz, function);
-    if (!properties.containsKey(path)) {
-      T value = supplier.get();
-      properties.put(path, value);
-      if (model2Controller != null && controller2Model != null) {
-        converters.put(value, Pair.of(model2Controller, controller2Model));
-      } else if (model2Controller != null || controller2Model != null) {
+    synchronized (properties) {
+      if (properties.containsKey(path)) {
+        return (T) properties.get(path);
+      }
+      if ((model2Controller == null) != (controller2Model == null)) {
         throw new IllegalArgumentException("Please specify both converters");
       }
+      T value = supplier.get();
+      PropertyState state = new PropertyState();
+      //a change listener validates the property on every change, an invalidation listener would miss changes after the first one
+      value.addListener((ChangeListener<Object>) (observable, oldValue, newValue) -> {
+        if (!applying) {
+          state.modified = true;
+        }
+      });
+      Pair<Function, Function> converter = model2Controller == null ? null : Pair.of(model2Controller, controller2Model);
+      properties.put(path, value);
+
+      BoundProperty[] previous = boundProperties;
+      BoundProperty[] added = Arrays.copyOf(previous, previous.length + 1);
+      added[previous.length] = new BoundProperty(path, value, state, converter);
+      boundProperties = added;
+      return value;
     }
-    return (T) properties.get(path);
   }
 
   public void registerClearOnRefresh(TextInputControl control) {
@@ -178,4 +267,93 @@ public class Binding {
   public void registerClearOnRefresh(Label overTime) {
     clearOnRefresh.add(overTime.textProperty());
   }
+
+  /**
+   * Snapshot of the values read from a model.
+   */
+  static class ModelProjection {
+    static final Object NOT_CONVERTED = new Object();
+
+    final Object model;
+    final BoundProperty[] properties;
+    final Object[] modelValues;
+    final Object[] values;
+    int size;
+
+    ModelProjection(Object model, int capacity) {
+      this.model = model;
+      properties = new BoundProperty[capacity];
+      modelValues = new Object[capacity];
+      values = new Object[capacity];
+    }
+
+    void add(BoundProperty property, Object modelValue, Object value) {
+      properties[size] = property;
+      modelValues[size] = modelValue;
+      values[size] = value;
+      size++;
+    }
+
+    int size() {
+      return size;
+    }
+  }
+
+  static class BoundProperty {
+    final PropertyPath path;
+    final Property<Object> property;
+    final PropertyState state;
+    final Pair<Function, Function> converter;
+
+    @SuppressWarnings("unchecked")
+    BoundProperty(PropertyPath path, Property<?> property, PropertyState state, Pair<Function, Function> converter) {
+      this.path = path;
+      this.property = (Property<Object>) property;
+      this.state = state;
+      this.converter = converter;
+    }
+  }
+
+  static class PropertyState {
+    private static final Object UNSET = new Object();
+
+    volatile Object applied = UNSET;
+    /**
+     * modified in the UI since the model value was applied
+     */
+    volatile boolean modified;
+
+    void applied(Object value) {
+      applied = value;
+      modified = false;
+    }
+
+    void reset() {
+      applied = UNSET;
+      modified = false;
+    }
+
+    boolean isReset() {
+      return applied == UNSET;
+    }
+
+    boolean isApplied(Object value) {
+      Object current = applied;
+      if (current == UNSET) {
+        return false;
+      } else if (value instanceof Collection || value instanceof Map) {
+        return false;//content might have changed in the same instance
+      } else if (current == value) {
+        return true;
+      } else {
+        return isImmutable(value) && value.equals(current);
+      }
+    }
+
+    private static boolean isImmutable(Object value) {
+      return value instanceof String || value instanceof Integer || value instanceof Long || value instanceof Double || value instanceof Float//
+        || value instanceof Short || value instanceof Byte || value instanceof Boolean || value instanceof Character//
+        || value instanceof BigDecimal || value instanceof BigInteger || value instanceof Enum || value instanceof Temporal;
+    }
+  }
 }
@@ -20,6 +20,8 @@ import com.google.inject.Key;
 import com.google.inject.multibindings.Multibinder;
 import com.google.inject.multibindings.OptionalBinder;
 import com.google.inject.name.Names;
+import de.ks.standbein.activity.ActivityHint;
+import de.ks.standbein.activity.ActivityPrepareService;
 import de.ks.standbein.activity.context.ActivityContext;
 import de.ks.standbein.activity.context.ActivityContextService;
 import de.ks.standbein.activity.context.ActivityScoped;
@@ -28,12 +30,19 @@ import de.ks.standbein.launch.Service;
 public class ActivityContextModule extends AbstractModule {
   public static final String EXECUTOR_COREPOOLSIZE = "ActivityExecutor.corepoolsize";
   public static final String EXECUTOR_MAXPOOLSIZE = "ActivityExecutor.maxpoolsize";
+  /**
+   * Activities which are loaded in the background after startup, empty by default.
+   */
+  public static final String PREPARED_ACTIVITIES = "ActivityController.preparedActivities";
 
   @Override
   protected void configure() {
     ActivityContext context = new ActivityContext();
 
-    Multibinder.newSetBinder(binder(), Service.class).addBinding().to(ActivityContextService.class);
+    Multibinder<Service> services = Multibinder.newSetBinder(binder(), Service.class);
+    services.addBinding().to(ActivityContextService.class);
+    services.addBinding().to(ActivityPrepareService.class);
+    Multibinder.newSetBinder(binder(), ActivityHint.class, Names.named(PREPARED_ACTIVITIES));
 
     bindScope(ActivityScoped.class, context);
     bind(ActivityContext.class).toInstance(context);
@@ -19,6 +19,7 @@ import com.google.inject.AbstractModule;
 import com.google.inject.Key;
 import com.google.inject.multibindings.Multibinder;
 import de.ks.standbein.application.ApplicationService;
+import de.ks.standbein.application.LocalizationService;
 import de.ks.standbein.javafx.FxCss;
 import de.ks.standbein.launch.Service;
 import de.ks.standbein.validation.DefaultDecorator;
@@ -30,7 +31,9 @@ public class ApplicationServiceModule extends AbstractModule {
 
   @Override
   protected void configure() {
-    Multibinder.newSetBinder(binder(), Service.class).addBinding().to(ApplicationService.class);
+    Multibinder<Service> services = Multibinder.newSetBinder(binder(), Service.class);
+    services.addBinding().to(ApplicationService.class);
+    services.addBinding().to(LocalizationService.class);
     Multibinder.newSetBinder(binder(), Key.get(String.class, FxCss.class)).addBinding().toInstance(DefaultDecorator.CSS_FILE_PATH);
   }
 }
@@ -156,4 +156,46 @@ public class ActivityControllerTest {
     controller.stopCurrent();
     assertEquals(1, returnCount.get());
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testStartPreparedActivity() throws Exception {
+    ActivityHint activityHint = new ActivityHint(DummyActivity.class);
+    activityHint.setNextActivityId("prepared");
+    ActivityCfg prepared = controller.prepare(activityHint).join();
+    assertNotNull(prepared);
+    assertTrue(context.isPrepared("prepared"));
+
+    controller.startOrResume(activityHint);
+    assertFalse(context.isPrepared("prepared"));
+    assertTrue(controller.preparedActivities.isEmpty());
+    assertSame(prepared, controller.registeredActivities.get("prepared"));
+    assertEquals("prepared", context.getCurrentActivity());
+  }
+
+  @Test
+  public void testPrepareRunningActivity() throws Exception {
+    ActivityHint activityHint = new ActivityHint(DummyActivity.class);
+    activityHint.setNextActivityId("running");
+    controller.startOrResume(activityHint);
+
+    assertSame(controller.registeredActivities.get("running"), controller.prepare(activityHint).join());
+    assertFalse(context.isPrepared("running"));
+    assertTrue(controller.preparedActivities.isEmpty());
+  }
+
+  @Test
+  public void testPrepareWhileStarting() throws Exception {
+    for (int i = 0; i < 5; i++) {
+      ActivityHint activityHint = new ActivityHint(DummyActivity.class);
+      activityHint.setNextActivityId("race" + i);
+      Future<?> start = executorService.submit(() -> controller.startOrResume(activityHint));
+      controller.prepare(activityHint);
+      start.get();
+      controller.waitForTasks();
+
+      assertFalse(context.isPrepared("race" + i));
+      assertTrue(controller.preparedActivities.isEmpty());
+      assertEquals("race" + i, context.getCurrentActivity());
+    }
+  }
+}
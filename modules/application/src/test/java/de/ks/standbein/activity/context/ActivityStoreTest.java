@@ -0,0 +1,157 @@
+/*
+ * Copyright [2014] [Christian Loehnert, krampenschiesser@gmail.com]
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.ks.standbein.activity.context;
+
+import de.ks.eventsystem.bus.EventBus;
+import de.ks.executor.JavaFXPriority;
+import de.ks.standbein.activity.executor.ActivityExecutor;
+import de.ks.standbein.activity.executor.ActivityJavaFXExecutor;
+import de.ks.standbein.activity.initialization.ActivityInitialization;
+import de.ks.standbein.binding.Binding;
+import de.ks.standbein.datasource.DataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.*;
+
+public class ActivityStoreTest {
+  private ActivityContext context;
+  private ActivityExecutor executor;
+  private ActivityStore store;
+  private BlockingDataSource dataSource;
+
+  @Before
+  public void setUp() throws Exception {
+    context = new ActivityContext();
+    context.start("store");
+    executor = new ActivityExecutor(() -> context, 4, 8);
+    ActivityJavaFXExecutor javaFXExecutor = new ActivityJavaFXExecutor(context) {
+      @Override
+      public void execute(Runnable command, JavaFXPriority priority) {
+        command.run();
+      }
+    };
+    store = new ActivityStore(executor, javaFXExecutor, context, new ActivityInitialization(), new EventBus());
+    store.setBinding(new Binding());
+    dataSource = new BlockingDataSource();
+    store.setDatasource(dataSource);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    executor.shutdownNow();
+    context.stopAll();
+  }
+
+  @Test
+  public void testCoalesceAndCancelReloads() throws Exception {
+    store.reload();
+    assertTrue(dataSource.started.await(5, TimeUnit.SECONDS));
+
+    for (int i = 0; i < 4; i++) {
+      store.reload();
+    }
+    dataSource.release.countDown();
+    store.waitForDataSource();
+
+    assertEquals(2, dataSource.loads.get());
+    assertEquals("a started load is not interrupted", 0, dataSource.interrupted.get());
+    assertEquals(Integer.valueOf(2), store.getModel());
+    assertEquals(2, store.getLatency(ActivityStore.Operation.RELOAD).getCount());
+    assertEquals(0, store.getQueueDepth());
+    assertEquals(1, store.getMaxQueueDepth());
+  }
+
+  @Test
+  public void testSerialCustomRunnables() throws Exception {
+    AtomicInteger active = new AtomicInteger();
+    AtomicInteger overlaps = new AtomicInteger();
+    Runnable runnable = () -> {
+      if (active.incrementAndGet() > 1) {
+        overlaps.incrementAndGet();
+      }
+      try {
+        Thread.sleep(50);
+      } catch (InterruptedException e) {
+        //
+      }
+      active.decrementAndGet();
+    };
+    store.executeCustomRunnable(runnable);
+    store.executeCustomRunnable(runnable);
+    store.waitForDataSource();
+
+    assertEquals(0, overlaps.get());
+    assertEquals(2, store.getLatency(ActivityStore.Operation.CUSTOM).getCount());
+  }
+
+  @Test
+  public void testParallelIndependentRunnables() throws Exception {
+    CyclicBarrier barrier = new CyclicBarrier(2);
+    AtomicInteger passed = new AtomicInteger();
+    Runnable runnable = () -> {
+      try {
+        barrier.await(5, TimeUnit.SECONDS);
+        passed.incrementAndGet();
+      } catch (Exception e) {
+        //not executed in parallel
+      }
+    };
+    store.executeIndependentRunnable(runnable);
+    store.executeIndependentRunnable(runnable);
+    store.waitForDataSource();
+
+    assertEquals(2, passed.get());
+    assertEquals(2, store.getLatency(ActivityStore.Operation.INDEPENDENT).getCount());
+    assertFalse(store.isLoading());
+  }
+
+  static class BlockingDataSource implements DataSource<Integer> {
+    final CountDownLatch started = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final AtomicInteger loads = new AtomicInteger();
+    final AtomicInteger interrupted = new AtomicInteger();
+
+    @Override
+    public Integer loadModel(Consumer<Integer> furtherProcessing) {
+      int load = loads.incrementAndGet();
+      started.countDown();
+      boolean wasInterrupted = false;
+      while (release.getCount() > 0) {
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          wasInterrupted = true;
+        }
+      }
+      if (wasInterrupted || Thread.interrupted()) {
+        interrupted.incrementAndGet();
+      }
+      return load;
+    }
+
+    @Override
+    public void saveModel(Integer model, Consumer<Integer> beforeSaving) {
+      beforeSaving.accept(model);
+    }
+  }
+}
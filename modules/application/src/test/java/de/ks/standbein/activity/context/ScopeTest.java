@@ -67,6 +67,39 @@ public class ScopeTest {
     assertEquals(1, context.activities.size());
   }
 
+  @Test
+  public void testGeneratedProxy() throws Exception {
+    context.start("1");
+    bean1.setValue("Hello Sauerland!");
+
+    assertTrue(bean1.getClass().getName().endsWith(ScopedProxyGenerator.SUFFIX));
+    assertEquals("Hello Sauerland!", bean2.getValue());
+    assertTrue(bean1.toString().startsWith("Proxy for " + ActivityScopedBean1.class.getName() + " current activity: '1'"));
+  }
+
+  @Test
+  public void testPreparedActivity() throws Exception {
+    context.start("1");
+    bean1.setValue("current");
+
+    context.prepare("2");
+    assertTrue(context.isPrepared("2"));
+    assertEquals("1", context.getCurrentActivity());
+    assertFalse(context.isMainActivity("2"));
+
+    String value = context.callInActivity("2", () -> {
+      assertEquals("2", context.getCurrentActivity());
+      bean1.setValue("prepared");
+      return bean2.getValue();
+    });
+    assertEquals("prepared", value);
+    assertEquals("current", bean1.getValue());
+
+    context.start("2");
+    assertFalse(context.isPrepared("2"));
+    assertEquals("prepared", bean1.getValue());
+  }
+
   @Inject
   Provider<ActivityScopedBean1> provider;
 
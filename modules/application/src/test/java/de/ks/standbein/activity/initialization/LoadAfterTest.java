@@ -0,0 +1,63 @@
+/*
+ * Copyright [2014] [Christian Loehnert, krampenschiesser@gmail.com]
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.ks.standbein.activity.initialization;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class LoadAfterTest {
+  @Test
+  public void testOrderByDependencies() throws Exception {
+    List<Class<?>> ordered = ActivityInitialization.orderByDependencies(Arrays.asList(Third.class, First.class, Second.class, Independent.class));
+    assertEquals(Arrays.asList(First.class, Second.class, Third.class, Independent.class), ordered);
+  }
+
+  @Test
+  public void testDependencyOutsideActivityIgnored() throws Exception {
+    List<Class<?>> ordered = ActivityInitialization.orderByDependencies(Arrays.asList(Third.class, Independent.class));
+    assertEquals(Arrays.asList(Third.class, Independent.class), ordered);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testCycle() throws Exception {
+    ActivityInitialization.orderByDependencies(Arrays.asList(CycleA.class, CycleB.class));
+  }
+
+  static class First {
+  }
+
+  @LoadAfter(First.class)
+  static class Second {
+  }
+
+  @LoadAfter({Second.class, First.class})
+  static class Third {
+  }
+
+  static class Independent {
+  }
+
+  @LoadAfter(CycleB.class)
+  static class CycleA {
+  }
+
+  @LoadAfter(CycleA.class)
+  static class CycleB {
+  }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright [2014] [Christian Loehnert, krampenschiesser@gmail.com]
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.ks.standbein.application.fxml;
+
+import com.google.common.io.ByteStreams;
+import de.ks.standbein.activity.initialization.PojoController;
+import de.ks.standbein.activity.resource.ResourceTestController;
+import org.junit.Test;
+
+import java.io.InputStream;
+import java.net.URL;
+
+import static org.junit.Assert.*;
+
+public class FxmlCacheTest {
+  @Test
+  public void testFxmlFileResolution() throws Exception {
+    URL fxmlFile = FxmlCache.getFxmlFile(ResourceTestController.class);
+    assertNotNull(fxmlFile);
+    assertTrue(fxmlFile.toExternalForm().endsWith("ResourceTestView.fxml"));
+    assertSame(fxmlFile, FxmlCache.getFxmlFile(ResourceTestController.class));
+
+    assertNull(FxmlCache.getFxmlFile(PojoController.class));
+  }
+
+  @Test
+  public void testCachedContent() throws Exception {
+    URL fxmlFile = FxmlCache.getFxmlFile(ResourceTestController.class);
+    byte[] expected;
+    try (InputStream stream = fxmlFile.openStream()) {
+      expected = ByteStreams.toByteArray(stream);
+    }
+    for (int i = 0; i < 2; i++) {
+      try (InputStream stream = FxmlCache.openStream(fxmlFile)) {
+        assertArrayEquals(expected, ByteStreams.toByteArray(stream));
+      }
+    }
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright [2014] [Christian Loehnert, krampenschiesser@gmail.com]
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.ks.standbein.application.fxml;
+
+import de.ks.IntegrationTestModule;
+import de.ks.standbein.LoggingGuiceTestSupport;
+import de.ks.standbein.i18n.Localized;
+import de.ks.util.FXPlatform;
+import javafx.scene.control.Label;
+import javafx.scene.layout.VBox;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+
+public class LocalizedTextBundleTest {
+  @Rule
+  public LoggingGuiceTestSupport support = new LoggingGuiceTestSupport(this, new IntegrationTestModule()).launchServices();
+
+  private Localized localized;
+  private LocalizedTextBundle bundle;
+
+  @Before
+  public void setUp() throws Exception {
+    localized = new Localized(Locale.ENGLISH, "TextBundle", "de.ks.standbein.application.fxml.TextBundle");
+    bundle = new LocalizedTextBundle(localized, LocalizedTextBundleTest.class);
+  }
+
+  @Test
+  public void testFollowTexts() throws Exception {
+    Label first = new Label(bundle.getString("same.first"));
+    Label second = new Label(bundle.getString("same.second"));
+    Label data = new Label("Same");
+    Label changed = new Label(bundle.getString("same.first"));
+    changed.setText("Same");
+    Label missing = new Label(bundle.getString("missing.key"));
+    bundle.followTexts(new VBox(first, second, data, changed, missing));
+
+    localized.changeLocale(Locale.GERMAN);
+    FXPlatform.waitForFX();
+    assertEquals("Erstes", first.getText());
+    assertEquals("Zweites", second.getText());
+    assertEquals("equal text set by the controller", "Same", data.getText());
+    assertEquals("Same", changed.getText());
+    assertEquals("?missing.key?", missing.getText());
+  }
+}
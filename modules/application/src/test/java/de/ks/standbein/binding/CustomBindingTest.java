@@ -19,6 +19,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.sql.Timestamp;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
 
@@ -79,4 +80,79 @@ public class CustomBindingTest {
     assertTrue(testObject.getSetValue().isEmpty());
     assertEquals(new Timestamp(now), testObject.getTimestamp());
   }
+
+  @Test
+  public void testDirtyTracking() throws Exception {
+    StringProperty stringProperty = binding.getStringProperty(TestObject.class, (t) -> t.getStringValue());
+    IntegerProperty integerProperty = binding.getIntegerProperty(TestObject.class, (t) -> t.getIntegerValue());
+    AtomicInteger changes = new AtomicInteger();
+    stringProperty.addListener((p, o, n) -> changes.incrementAndGet());
+
+    TestObject testObject = new TestObject().setStringValue("HelloWorld").setIntegerValue(12);
+    binding.applyModelToProperties(testObject);
+    assertEquals(1, changes.get());
+
+    binding.applyModelToProperties(new TestObject().setStringValue("HelloWorld").setIntegerValue(13));
+    assertEquals("unchanged value is not pushed again", 1, changes.get());
+    assertEquals(13, integerProperty.get());
+
+    stringProperty.set("Hello sauerland!");
+    TestObject saved = new TestObject().setStringValue("other").setIntegerValue(1);
+    binding.applyControllerContent(saved);
+    assertEquals("Hello sauerland!", saved.getStringValue());
+    assertEquals("unmodified property is not written back", 1, saved.getIntegerValue());
+
+    binding.applyModelToProperties(testObject);
+    assertEquals("modified property is reset to the model", "HelloWorld", stringProperty.get());
+    assertEquals(12, integerProperty.get());
+  }
+
+  @Test
+  public void testProjectedModel() throws Exception {
+    StringProperty stringProperty = binding.getStringProperty(TestObject.class, (t) -> t.getStringValue());
+    SimpleObjectProperty<Object> model = new SimpleObjectProperty<>();
+    model.addListener(binding::bindChangedModel);
+
+    TestObject testObject = new TestObject().setStringValue("HelloWorld");
+    binding.projectModel(testObject);
+    testObject.setStringValue("changed after projection");
+    model.set(testObject);
+    assertEquals("projected value is assigned", "HelloWorld", stringProperty.get());
+
+    model.set(new TestObject().setStringValue("not projected"));
+    assertEquals("not projected", stringProperty.get());
+  }
+
+  @Test
+  public void testUnobservedModificationWrittenBack() throws Exception {
+    StringProperty stringProperty = binding.getStringProperty(TestObject.class, (t) -> t.getStringValue());
+    binding.applyModelToProperties(new TestObject().setStringValue("HelloWorld"));
+
+    stringProperty.set("first");
+    TestObject saved = new TestObject();
+    binding.applyControllerContent(saved);
+    assertEquals("first", saved.getStringValue());
+
+    binding.applyModelToProperties(saved);
+    stringProperty.set("second");
+    stringProperty.set("third");
+    binding.applyControllerContent(saved);
+    assertEquals("third", saved.getStringValue());
+  }
+
+  @Test
+  public void testDefaultsWrittenBackAfterReset() throws Exception {
+    StringProperty stringProperty = binding.getStringProperty(TestObject.class, (t) -> t.getStringValue());
+    IntegerProperty integerProperty = binding.getIntegerProperty(TestObject.class, (t) -> t.getIntegerValue());
+    binding.applyModelToProperties(new TestObject().setStringValue("HelloWorld").setIntegerValue(12));
+
+    binding.bindChangedModel(null, null, null);
+    assertEquals("", stringProperty.get());
+    assertEquals(0, integerProperty.get());
+
+    TestObject created = new TestObject().setIntegerValue(7);
+    binding.applyControllerContent(created);
+    assertEquals("", created.getStringValue());
+    assertEquals(0, created.getIntegerValue());
+  }
 }
@@ -0,0 +1,88 @@
+/*
+ * Copyright [2014] [Christian Loehnert, krampenschiesser@gmail.com]
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.ks.eventsystem.bus;
+
+import com.google.common.eventbus.Subscribe;
+import de.ks.standbein.reflection.ReflectionUtil;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the former reflective delivery (Method.invoke per handler) with the generated invokers for Sync handlers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventBusDispatchBenchmark {
+  @Param({"1", "10", "100"})
+  int subscribers;
+
+  private final BenchmarkEvent event = new BenchmarkEvent();
+  private final List<Subscriber> targets = new ArrayList<>();
+  private EventHandler[] handlers;
+  private EventBus eventBus;
+
+  @Setup
+  public void setUp() throws Exception {
+    Method method = Subscriber.class.getMethod("onEvent", BenchmarkEvent.class);
+    eventBus = new EventBus();
+    handlers = new EventHandler[subscribers];
+    for (int i = 0; i < subscribers; i++) {
+      Subscriber subscriber = new Subscriber();
+      targets.add(subscriber);
+      eventBus.register(subscriber);
+      handlers[i] = new EventHandler(null, null, subscriber, method);
+    }
+  }
+
+  @Benchmark
+  public void reflective(Blackhole blackhole) {
+    for (EventHandler handler : handlers) {
+      blackhole.consume(ReflectionUtil.invokeMethod(handler.method, handler.target.get(), event));
+    }
+  }
+
+  @Benchmark
+  public void generated(Blackhole blackhole) {
+    for (EventHandler handler : handlers) {
+      blackhole.consume(handler.handleEvent(event, false));
+    }
+  }
+
+  @Benchmark
+  public void post() {
+    eventBus.post(event);
+  }
+
+  public static class BenchmarkEvent {
+    int count;
+  }
+
+  public static class Subscriber {
+    @Subscribe
+    public void onEvent(BenchmarkEvent event) {
+      event.count++;
+    }
+  }
+}
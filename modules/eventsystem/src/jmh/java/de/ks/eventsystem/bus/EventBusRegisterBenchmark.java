@@ -0,0 +1,67 @@
+/*
+ * Copyright [2014] [Christian Loehnert, krampenschiesser@gmail.com]
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.ks.eventsystem.bus;
+
+import com.google.common.eventbus.Subscribe;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of registering and unregistering a subscriber with several handler methods.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventBusRegisterBenchmark {
+  private EventBus eventBus;
+
+  @Setup
+  public void setUp() {
+    eventBus = new EventBus();
+  }
+
+  @Benchmark
+  public Subscriber registerAndUnregister() {
+    Subscriber subscriber = new Subscriber();
+    eventBus.register(subscriber);
+    eventBus.unregister(subscriber);
+    return subscriber;
+  }
+
+  public static class Subscriber {
+    @Subscribe
+    public void onString(String event) {
+    }
+
+    @Subscribe
+    public void onInteger(Integer event) {
+    }
+
+    @Subscribe
+    public void onLong(Long event) {
+    }
+
+    @Subscribe
+    public void onObject(Object event) {
+    }
+
+    public void notSubscribed(String event) {
+    }
+  }
+}
@@ -18,24 +18,47 @@ package de.ks.eventsystem;
 import com.google.common.eventbus.DeadEvent;
 import com.google.common.eventbus.Subscribe;
 import com.google.inject.AbstractModule;
+import com.google.inject.Key;
 import com.google.inject.Provides;
+import com.google.inject.multibindings.OptionalBinder;
+import com.google.inject.name.Names;
 import de.ks.eventsystem.bus.EventBus;
+import de.ks.eventsystem.bus.EventDispatchExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.inject.Named;
 import javax.inject.Singleton;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
 
 public class EventBusModule extends AbstractModule {
+  public static final String EXECUTOR_PARALLELISM = "EventBus.executor.parallelism";
+  public static final String EXECUTOR_QUEUEDEPTH = "EventBus.executor.queuedepth";
+  public static final String EXECUTOR_REJECTION = "EventBus.executor.rejection";
 
   @Override
   protected void configure() {
-    //nope just provider
+    OptionalBinder.newOptionalBinder(binder(), Key.get(Integer.class, Names.named(EXECUTOR_PARALLELISM)))//
+      .setDefault().toInstance(EventDispatchExecutor.DEFAULT_PARALLELISM);
+    OptionalBinder.newOptionalBinder(binder(), Key.get(Integer.class, Names.named(EXECUTOR_QUEUEDEPTH)))//
+      .setDefault().toInstance(EventDispatchExecutor.DEFAULT_QUEUE_DEPTH);
+    OptionalBinder.newOptionalBinder(binder(), Key.get(RejectedExecutionHandler.class, Names.named(EXECUTOR_REJECTION)))//
+      .setDefault().toInstance(new ThreadPoolExecutor.CallerRunsPolicy());
   }
 
   @Provides
   @Singleton
-  public EventBus getEventBus() {
-    return new EventBus().register(new LoggingDeadEventHandler());
+  public EventDispatchExecutor getEventDispatchExecutor(@Named(EXECUTOR_PARALLELISM) int parallelism, @Named(EXECUTOR_QUEUEDEPTH) int queueDepth, @Named(EXECUTOR_REJECTION) RejectedExecutionHandler rejectionHandler) {
+    return new EventDispatchExecutor(parallelism, queueDepth, rejectionHandler);
+  }
+
+  @Provides
+  @Singleton
+  public EventBus getEventBus(EventDispatchExecutor executor) {
+    EventBus eventBus = new EventBus();
+    eventBus.setExecutorService(executor);
+    return eventBus.register(new LoggingDeadEventHandler());
   }
 
   static class LoggingDeadEventHandler {
@@ -0,0 +1,42 @@
+/*
+ * Copyright [2014] [Christian Loehnert, krampenschiesser@gmail.com]
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.ks.eventsystem.bus;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Collapses events that are posted in bursts (progress, selection, model changes) into fewer deliveries.
+ * Events are collected until the handler is flushed, then
+ *
+ * * a handler with a single event parameter only receives the last event (per {@link CoalescableEvent#getCoalescingKey()})
+ * * a handler with a java.util.List<Event> parameter receives all collected events at once, in posting order, without deduplication.
+ *   The element type has to be declared (List<Event>, List<? extends Event>), a raw List is rejected on registration.
+ *
+ * The delivery thread is still specified via {@link HandleInThread}.
+ * Coalescing handlers can't consume events.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Coalesce {
+  /**
+   * @return time window in milliseconds to collect events.
+   * 0 flushes with the next run of the handling thread, eg. the next JavaFX pulse.
+   */
+  long value() default 0;
+}
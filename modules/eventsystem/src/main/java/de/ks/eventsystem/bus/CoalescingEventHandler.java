@@ -0,0 +1,135 @@
+/*
+ * Copyright [2014] [Christian Loehnert, krampenschiesser@gmail.com]
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.ks.eventsystem.bus;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import de.ks.executor.JavaFXExecutorService;
+import de.ks.executor.LoggingUncaughtExceptionHandler;
+import javafx.application.Platform;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Handler for methods annotated with {@link Coalesce}.
+ */
+class CoalescingEventHandler extends EventHandler {
+  private static final Logger log = LoggerFactory.getLogger(CoalescingEventHandler.class);
+
+  protected final long window;
+  protected final boolean batch;
+  protected final LinkedHashMap<Object, Object> pending = new LinkedHashMap<>();
+  protected boolean flushScheduled = false;
+
+  protected CoalescingEventHandler(ExecutorService service, JavaFXExecutorService fxExecutor, WeakReference<Object> target, Method method, Class<?> eventType) {
+    super(service, fxExecutor, target, method, eventType);
+    window = method.getAnnotation(Coalesce.class).value();
+    batch = List.class.equals(method.getParameterTypes()[0]);
+  }
+
+  @Override
+  public boolean handleEvent(Object event, boolean wait) {
+    if (target.get() == null) {
+      return false;
+    }
+    boolean schedule;
+    synchronized (pending) {
+      pending.put(getKey(event), event);
+      schedule = !flushScheduled;
+      flushScheduled = true;
+    }
+    if (wait) {
+      flush(true);
+    } else if (schedule) {
+      scheduleFlush();
+    }
+    return false;
+  }
+
+  protected Object getKey(Object event) {
+    if (batch) {
+      return new Object();
+    } else if (event instanceof CoalescableEvent) {
+      return Arrays.asList(event.getClass(), ((CoalescableEvent) event).getCoalescingKey());
+    } else {
+      return event.getClass();
+    }
+  }
+
+  protected void scheduleFlush() {
+    if (window > 0) {
+      SchedulerHolder.scheduler.schedule(() -> flush(false), window, TimeUnit.MILLISECONDS);
+    } else if (handlingThread == HandlingThread.JavaFX) {
+      if (Platform.isFxApplicationThread()) {
+        Platform.runLater(() -> flush(false));
+      } else {
+        fxExecutor.execute(() -> flush(false));
+      }
+    } else if (handlingThread == HandlingThread.Async) {
+      service.execute(() -> flush(false));
+    } else {
+      flush(false);
+    }
+  }
+
+  protected void flush(boolean wait) {
+    List<Object> events;
+    synchronized (pending) {
+      events = new ArrayList<>(pending.values());
+      pending.clear();
+      flushScheduled = false;
+    }
+    Object targetInstance = target.get();
+    if (targetInstance == null || events.isEmpty()) {
+      return;
+    }
+    log.trace("Flushing {} coalesced events to {}", events.size(), method);
+    if (batch) {
+      deliver(Collections.unmodifiableList(events), targetInstance, wait);
+    } else {
+      events.forEach(e -> deliver(e, targetInstance, wait));
+    }
+  }
+
+  protected void deliver(Object event, Object targetInstance, boolean wait) {
+    switch (handlingThread) {
+      case Sync:
+        invoke(targetInstance, event);
+        break;
+      case Async:
+        executeAsync(event, targetInstance, wait);
+        break;
+      case JavaFX:
+        handleInJavaFXThread(event, targetInstance, wait);
+        break;
+    }
+  }
+
+  private static class SchedulerHolder {
+    static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()//
+      .setDaemon(true)//
+      .setNameFormat("Eventsystem-coalescing-%d")//
+      .setUncaughtExceptionHandler(new LoggingUncaughtExceptionHandler())//
+      .build());
+  }
+}
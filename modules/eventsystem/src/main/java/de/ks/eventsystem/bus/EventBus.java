@@ -16,6 +16,7 @@
 package de.ks.eventsystem.bus;
 
 import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.MapMaker;
 import com.google.common.eventbus.DeadEvent;
 import com.google.common.eventbus.Subscribe;
 import com.google.common.primitives.Primitives;
@@ -24,12 +25,17 @@ import de.ks.standbein.reflection.ReflectionUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
-import java.util.stream.Collectors;
 
 public class EventBus {
   /**
@@ -40,6 +46,15 @@ public class EventBus {
   protected final ArrayListMultimap<Class<?>, EventHandler> handlers = ArrayListMultimap.create();
   protected final HandlerComparator handlerComparator = new HandlerComparator();
   protected final ReadWriteLock lock = new ReentrantReadWriteLock(true);
+  /**
+   * Sorted handlers per concrete event class, including the handlers of all supertypes and interfaces.
+   * Replaced by a fresh map on every register/unregister, entries are computed lazily on the first post.
+   */
+  protected volatile ConcurrentHashMap<Class<?>, EventHandler[]> dispatchTable = new ConcurrentHashMap<>();
+  /**
+   * Identity index of all registered objects, weak keys so collected subscribers are only removed via the sweeper.
+   */
+  protected final Map<Object, Registration> registrations = new MapMaker().weakKeys().makeMap();
   protected ExecutorService executorService = null;
   protected JavaFXExecutorService javaFXExecutorService = null;
 
@@ -50,14 +65,24 @@ public class EventBus {
       (Method m) -> m.getParameters().length == 1                    //
     );
 
+    List<Class<?>> eventTypes = new ArrayList<>(methods.size());
+    for (Method method : methods) {
+      eventTypes.add(getEventType(method));//fails before anything is registered
+    }
+
     lock.writeLock().lock();
     try {
-      for (Method method : methods) {
-        Class<?> eventType = getEventType(method);
-        handlers.put(eventType, new EventHandler(executorService, javaFXExecutorService, handler, method));
+      Registration registration = registrations.computeIfAbsent(handler, h -> new Registration(this, h));
+      for (int i = 0; i < methods.size(); i++) {
+        Method method = methods.get(i);
+        Class<?> eventType = eventTypes.get(i);
+        EventHandler eventHandler = createEventHandler(registration, method, eventType);
+        registration.subscriptions.put(eventType, eventHandler);
+        handlers.put(eventType, eventHandler);
         List<EventHandler> eventHandlers = handlers.get(eventType);//could be optimized by not sorting an event type multiple times
         Collections.sort(eventHandlers, getHandlerComparator());
       }
+      invalidateDispatchTable();
     } finally {
       lock.writeLock().unlock();
     }
@@ -65,36 +90,27 @@ public class EventBus {
   }
 
   public EventBus unregister(Object handler) {
-    @SuppressWarnings("unchecked")
-    List<Method> methods = ReflectionUtil.getAllMethods(handler.getClass(),//
-      (Method m) -> m.isAnnotationPresent(Subscribe.class),          //
-      (Method m) -> m.getParameters().length == 1                    //
-    );
-
-    Set<Class<?>> classes = methods.stream().map(this::getEventType).collect(Collectors.toSet());
-
-    for (Class<?> clazz : classes) {
-      List<EventHandler> eventHandlers = handlers.get(clazz);
-      removeSpecificHandler(handler, eventHandlers);
+    lock.writeLock().lock();
+    try {
+      Registration registration = registrations.remove(handler);
+      if (registration != null) {
+        registration.clear();
+        removeRegistration(registration);
+      }
+    } finally {
+      lock.writeLock().unlock();
     }
     return this;
   }
 
-  private void removeSpecificHandler(Object specificHandler, List<EventHandler> eventHandlers) {
+  /**
+   * Removes all handlers of the given registration, called on unregister and by the sweeper for collected subscribers.
+   */
+  protected void removeRegistration(Registration registration) {
     lock.writeLock().lock();
     try {
-
-      for (Iterator<EventHandler> iterator = eventHandlers.iterator(); iterator.hasNext(); ) {
-        EventHandler next = iterator.next();
-        Object instance = next.target.get();
-        if (instance != null) {
-          if (instance == specificHandler) {
-            iterator.remove();
-          }
-        } else {
-          iterator.remove();
-        }
-      }
+      registration.subscriptions.entries().forEach(e -> handlers.remove(e.getKey(), e.getValue()));
+      invalidateDispatchTable();
     } finally {
       lock.writeLock().unlock();
     }
@@ -115,28 +131,16 @@ public class EventBus {
   }
 
   private void postToEventHandlers(Object event, boolean wait) {
-    List<Class<?>> hierarchy = ReflectionUtil.getClassHierarchy(event.getClass(), false);
-    LinkedList<EventExecution> executions = new LinkedList<>();
-    lock.readLock().lock();
-    try {
-      for (Class<?> eventType : hierarchy) {
-        List<EventHandler> eventHandlers = handlers.get(eventType);
-        for (EventHandler eventHandler : eventHandlers) {
-          executions.add(new EventExecution(event, eventHandler));
-        }
-      }
-    } finally {
-      lock.readLock().unlock();
-    }
+    EventHandler[] eventHandlers = getDispatchTable(event.getClass());
 
-    for (EventExecution execution : executions) {
-      boolean consumed = execution.handler.handleEvent(event, wait);
+    for (EventHandler eventHandler : eventHandlers) {
+      boolean consumed = eventHandler.handleEvent(event, wait);
       if (consumed) {
         break;
       }
     }
 
-    boolean noHandlerFound = executions.isEmpty();
+    boolean noHandlerFound = eventHandlers.length == 0;
     boolean isDeadEvent = event instanceof DeadEvent;
 
     if (noHandlerFound && !isDeadEvent) {
@@ -146,18 +150,95 @@ public class EventBus {
     }
   }
 
+  protected EventHandler[] getDispatchTable(Class<?> eventClass) {
+    EventHandler[] eventHandlers = dispatchTable.get(eventClass);
+    if (eventHandlers == null) {
+      lock.readLock().lock();
+      try {
+        eventHandlers = dispatchTable.computeIfAbsent(eventClass, this::createDispatchTable);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+    return eventHandlers;
+  }
+
+  private EventHandler[] createDispatchTable(Class<?> eventClass) {
+    ArrayList<EventHandler> retval = new ArrayList<>();
+    for (Class<?> eventType : getDispatchTypes(eventClass)) {
+      retval.addAll(handlers.get(eventType));
+    }
+    return retval.toArray(new EventHandler[retval.size()]);
+  }
+
+  /**
+   * The class hierarchy(without Object) of the event followed by all implemented interfaces.
+   */
+  protected Set<Class<?>> getDispatchTypes(Class<?> eventClass) {
+    List<Class<?>> hierarchy = ReflectionUtil.getClassHierarchy(eventClass, false);
+    LinkedHashSet<Class<?>> retval = new LinkedHashSet<>(hierarchy);
+    LinkedList<Class<?>> interfaces = new LinkedList<>();
+    hierarchy.forEach(c -> interfaces.addAll(Arrays.asList(c.getInterfaces())));
+    while (!interfaces.isEmpty()) {
+      Class<?> current = interfaces.pollFirst();
+      if (retval.add(current)) {
+        interfaces.addAll(Arrays.asList(current.getInterfaces()));
+      }
+    }
+    return retval;
+  }
+
+  /**
+   * Needs to be called while holding the write lock.
+   */
+  protected void invalidateDispatchTable() {
+    dispatchTable = new ConcurrentHashMap<>();
+  }
+
   protected HandlerComparator getHandlerComparator() {
     return handlerComparator;
   }
 
+  protected EventHandler createEventHandler(WeakReference<Object> handler, Method method, Class<?> eventType) {
+    if (method.isAnnotationPresent(Coalesce.class)) {
+      return new CoalescingEventHandler(executorService, javaFXExecutorService, handler, method, eventType);
+    } else {
+      return new EventHandler(executorService, javaFXExecutorService, handler, method, eventType);
+    }
+  }
+
   protected Class<?> getEventType(Method method) {
     Class<?> type = method.getParameterTypes()[0];
+    if (List.class.equals(type) && method.isAnnotationPresent(Coalesce.class)) {
+      return getBatchEventType(method);
+    }
     if (type.isPrimitive()) {
       return Primitives.wrap(type);
     }
     return type;
   }
 
+  private Class<?> getBatchEventType(Method method) {
+    Type type = method.getGenericParameterTypes()[0];
+    if (type instanceof ParameterizedType) {
+      return resolveRawType(((ParameterizedType) type).getActualTypeArguments()[0]);
+    }
+    throw new IllegalArgumentException("Coalescing handler " + method + " needs to declare the event type of its list, eg. List<MyEvent>");
+  }
+
+  private Class<?> resolveRawType(Type type) {
+    if (type instanceof Class) {
+      return (Class<?>) type;
+    } else if (type instanceof ParameterizedType) {
+      return (Class<?>) ((ParameterizedType) type).getRawType();
+    } else if (type instanceof WildcardType) {
+      return resolveRawType(((WildcardType) type).getUpperBounds()[0]);
+    } else if (type instanceof TypeVariable) {
+      return resolveRawType(((TypeVariable<?>) type).getBounds()[0]);
+    }
+    return Object.class;
+  }
+
   public ExecutorService getExecutorService() {
     return executorService;
   }
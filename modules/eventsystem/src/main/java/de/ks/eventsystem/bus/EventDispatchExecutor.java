@@ -0,0 +1,203 @@
+/*
+ * Copyright [2014] [Christian Loehnert, krampenschiesser@gmail.com]
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.ks.eventsystem.bus;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import de.ks.executor.LoggingUncaughtExceptionHandler;
+
+import java.util.Arrays;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded executor for asynchronous event handlers.
+ * Limits the amount of queued events per event type, events exceeding the queue depth are passed to the rejection handler.
+ * A rejected task the handler neither ran nor queued again (eg. {@link java.util.concurrent.ThreadPoolExecutor.DiscardPolicy}) is cancelled.
+ * Tasks dropped via {@link java.util.concurrent.BlockingQueue#poll()} (eg. {@link java.util.concurrent.ThreadPoolExecutor.DiscardOldestPolicy}) are cancelled as well.
+ * Exposes queued, active and completed tasks and the p99 handler latency.
+ */
+public class EventDispatchExecutor extends ThreadPoolExecutor {
+  /**
+   * Handlers tend to block on IO, so don't go below 4 threads on small machines.
+   */
+  public static final int DEFAULT_PARALLELISM = Math.max(4, Runtime.getRuntime().availableProcessors());
+  public static final int DEFAULT_QUEUE_DEPTH = 1000;
+  private static final int LATENCY_SAMPLES = 1024;
+
+  protected final int maxQueuedPerEventType;
+  protected final ConcurrentHashMap<Class<?>, AtomicInteger> queuedPerEventType = new ConcurrentHashMap<>();
+  protected final AtomicLongArray latencies = new AtomicLongArray(LATENCY_SAMPLES);
+  protected final AtomicLong latencyCount = new AtomicLong();
+
+  public EventDispatchExecutor(int parallelism, int maxQueuedPerEventType, RejectedExecutionHandler rejectionHandler) {
+    super(parallelism, parallelism, 60, TimeUnit.SECONDS, new EventQueue(), new ThreadFactoryBuilder()//
+      .setDaemon(true)//
+      .setNameFormat("Eventsystem-%d")//
+      .setUncaughtExceptionHandler(new LoggingUncaughtExceptionHandler())//
+      .build(), rejectionHandler);
+    this.maxQueuedPerEventType = maxQueuedPerEventType;
+    allowCoreThreadTimeOut(true);
+  }
+
+  /**
+   * Shared instance used by all event handlers without an explicit executor.
+   */
+  public static EventDispatchExecutor getDefault() {
+    return DefaultHolder.instance;
+  }
+
+  public Future<?> submit(Class<?> eventType, Runnable task) {
+    AtomicInteger queued = queuedPerEventType.computeIfAbsent(eventType, k -> new AtomicInteger());
+    if (queued.incrementAndGet() > maxQueuedPerEventType) {
+      queued.decrementAndGet();
+      EventTask rejected = new EventTask(task, queued);
+      try {
+        getRejectedExecutionHandler().rejectedExecution(rejected, this);
+      } finally {
+        if (!rejected.isDone() && !rejected.isCounted()) {
+          //discarded, nobody would ever complete it
+          rejected.discard();
+        }
+      }
+      return rejected;
+    }
+    EventTask eventTask = new EventTask(task, queued);
+    eventTask.counted.set(true);
+    try {
+      execute(eventTask);
+    } catch (RejectedExecutionException e) {
+      eventTask.release();
+      throw e;
+    }
+    return eventTask;
+  }
+
+  /**
+   * Tasks handed to the executor again by a rejection handler occupy a slot of their event type again.
+   */
+  @Override
+  public void execute(Runnable command) {
+    if (command instanceof EventTask) {
+      ((EventTask) command).count();
+    }
+    super.execute(command);
+  }
+
+  public int getQueuedCount() {
+    return queuedPerEventType.values().stream().mapToInt(AtomicInteger::get).sum();
+  }
+
+  public int getQueuedCount(Class<?> eventType) {
+    AtomicInteger queued = queuedPerEventType.get(eventType);
+    return queued == null ? 0 : queued.get();
+  }
+
+  /**
+   * @return p99 of the last 1024 handler executions
+   */
+  public long getP99Latency(TimeUnit unit) {
+    int count = (int) Math.min(latencyCount.get(), LATENCY_SAMPLES);
+    if (count == 0) {
+      return 0;
+    }
+    long[] samples = new long[count];
+    for (int i = 0; i < count; i++) {
+      samples[i] = latencies.get(i);
+    }
+    Arrays.sort(samples);
+    int index = (int) Math.ceil(count * 0.99) - 1;
+    return unit.convert(samples[index], TimeUnit.NANOSECONDS);
+  }
+
+  protected void recordLatency(long nanos) {
+    int index = (int) (latencyCount.getAndIncrement() % LATENCY_SAMPLES);
+    latencies.set(index, nanos);
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "[queued=" + getQueuedCount() + ", active=" + getActiveCount() + ", completed=" + getCompletedTaskCount() + ", p99=" + getP99Latency(TimeUnit.MICROSECONDS) + "µs]";
+  }
+
+  protected class EventTask extends FutureTask<Void> {
+    private final AtomicInteger queued;
+    /**
+     * true while the task occupies a slot of its event type
+     */
+    private final AtomicBoolean counted = new AtomicBoolean();
+
+    protected EventTask(Runnable runnable, AtomicInteger queued) {
+      super(runnable, null);
+      this.queued = queued;
+    }
+
+    protected void count() {
+      if (queued != null && counted.compareAndSet(false, true)) {
+        queued.incrementAndGet();
+      }
+    }
+
+    protected boolean isCounted() {
+      return counted.get();
+    }
+
+    protected void release() {
+      if (queued != null && counted.compareAndSet(true, false)) {
+        queued.decrementAndGet();
+      }
+    }
+
+    /**
+     * Releases the slot and cancels the task, so nobody waits for it forever.
+     */
+    protected void discard() {
+      release();
+      cancel(false);
+    }
+
+    @Override
+    public void run() {
+      release();
+      long start = System.nanoTime();
+      try {
+        super.run();
+      } finally {
+        recordLatency(System.nanoTime() - start);
+      }
+    }
+  }
+
+  /**
+   * Workers only use the timed poll and take, the plain poll is used by rejection handlers dropping the oldest task.
+   */
+  protected static class EventQueue extends LinkedBlockingQueue<Runnable> {
+    @Override
+    public Runnable poll() {
+      Runnable polled = super.poll();
+      if (polled instanceof EventTask) {
+        ((EventTask) polled).discard();
+      }
+      return polled;
+    }
+  }
+
+  private static class DefaultHolder {
+    static final EventDispatchExecutor instance = new EventDispatchExecutor(DEFAULT_PARALLELISM, DEFAULT_QUEUE_DEPTH, new CallerRunsPolicy());
+  }
+}
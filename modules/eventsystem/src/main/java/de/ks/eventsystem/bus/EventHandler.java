@@ -15,10 +15,8 @@
 
 package de.ks.eventsystem.bus;
 
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.primitives.Primitives;
 import de.ks.executor.JavaFXExecutorService;
-import de.ks.executor.LoggingUncaughtExceptionHandler;
-import de.ks.standbein.reflection.ReflectionUtil;
 import javafx.application.Platform;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,14 +32,29 @@ class EventHandler {
   private static final Logger log = LoggerFactory.getLogger(EventHandler.class);
   protected final WeakReference<Object> target;
   protected final Method method;
+  protected final EventInvoker invoker;
   protected final Integer priority;
   protected final HandlingThread handlingThread;
   protected final ExecutorService service;
   protected final JavaFXExecutorService fxExecutor;
+  /**
+   * declared event type, used to limit the queue depth of asynchronous handlers
+   */
+  protected final Class<?> eventType;
 
   protected EventHandler(ExecutorService service, JavaFXExecutorService fxExecutor, Object target, Method method) {
-    this.target = new WeakReference<>(target);
+    this(service, fxExecutor, new WeakReference<>(target), method);
+  }
+
+  protected EventHandler(ExecutorService service, JavaFXExecutorService fxExecutor, WeakReference<Object> target, Method method) {
+    this(service, fxExecutor, target, method, Primitives.wrap(method.getParameterTypes()[0]));
+  }
+
+  protected EventHandler(ExecutorService service, JavaFXExecutorService fxExecutor, WeakReference<Object> target, Method method, Class<?> eventType) {
+    this.eventType = eventType;
+    this.target = target;
     this.method = method;
+    this.invoker = InvokerFactory.getInvoker(method);
     if (method.isAnnotationPresent(Priority.class)) {
       Priority annotation = method.getAnnotation(Priority.class);
       priority = annotation.value();
@@ -53,21 +66,8 @@ class EventHandler {
     } else {
       handlingThread = HandlingThread.Sync;
     }
-    if (service == null) {
-      ThreadFactory threadFactory = new ThreadFactoryBuilder()//
-        .setDaemon(true)//
-        .setNameFormat("Eventsystem-%d")//
-        .setUncaughtExceptionHandler(new LoggingUncaughtExceptionHandler())//
-        .build();
-      this.service = Executors.newCachedThreadPool(threadFactory);
-    } else {
-      this.service = service;
-    }
-    if (fxExecutor == null) {
-      this.fxExecutor = new JavaFXExecutorService();
-    } else {
-      this.fxExecutor = fxExecutor;
-    }
+    this.service = service == null ? EventDispatchExecutor.getDefault() : service;
+    this.fxExecutor = fxExecutor == null ? DefaultJavaFXExecutor.instance : fxExecutor;
   }
 
   public boolean handleEvent(Object event, boolean wait) {
@@ -76,7 +76,7 @@ class EventHandler {
       Object retval = null;
       switch (this.handlingThread) {
         case Sync:
-          retval = ReflectionUtil.invokeMethod(method, targetInstance, event);
+          retval = invoke(targetInstance, event);
           break;
         case Async:
           executeAsync(event, targetInstance, wait);
@@ -95,12 +95,27 @@ class EventHandler {
     return false;
   }
 
+  protected Object invoke(Object targetInstance, Object event) {
+    try {
+      return invoker.invoke(targetInstance, event);
+    } catch (Throwable t) {
+      log.error("Could not invoke method {} of {}", method.getName(), targetInstance.getClass().getName(), t);
+      throw new RuntimeException(t);
+    }
+  }
+
   protected void executeAsync(Object event, Object targetInstance, boolean wait) {
-    Future<?> future = service.submit((Runnable) () -> ReflectionUtil.invokeMethod(method, targetInstance, event));
+    Runnable task = () -> invoke(targetInstance, event);
+    Future<?> future;
+    if (service instanceof EventDispatchExecutor) {
+      future = ((EventDispatchExecutor) service).submit(eventType, task);
+    } else {
+      future = service.submit(task);
+    }
     if (wait) {
       try {
         future.get();
-      } catch (InterruptedException | ExecutionException e) {
+      } catch (InterruptedException | ExecutionException | CancellationException e) {
         log.error("Could not execute event asynchronously ", e);
       }
     }
@@ -108,9 +123,9 @@ class EventHandler {
 
   protected Object handleInJavaFXThread(Object event, Object targetInstance, boolean wait) {
     if (Platform.isFxApplicationThread()) {
-      ReflectionUtil.invokeMethod(method, targetInstance, event);
+      invoke(targetInstance, event);
     } else {
-      FutureTask<Class<Void>> task = new FutureTask<>(() -> ReflectionUtil.invokeMethod(method, targetInstance, event), Void.class);
+      FutureTask<Class<Void>> task = new FutureTask<>(() -> invoke(targetInstance, event), Void.class);
       fxExecutor.submit(task);
       if (wait) {
         try {
@@ -122,4 +137,8 @@ class EventHandler {
     }
     return null;
   }
+
+  private static class DefaultJavaFXExecutor {
+    static final JavaFXExecutorService instance = new JavaFXExecutorService();
+  }
 }
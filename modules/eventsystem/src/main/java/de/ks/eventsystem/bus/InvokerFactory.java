@@ -0,0 +1,130 @@
+/*
+ * Copyright [2014] [Christian Loehnert, krampenschiesser@gmail.com]
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.ks.eventsystem.bus;
+
+import com.google.common.primitives.Primitives;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Creates {@link EventInvoker}s for subscriber methods.
+ * Public methods of public classes get a class spun by the LambdaMetafactory which calls the method directly,
+ * everything else falls back to a MethodHandle.
+ * Invokers are cached per method so registering the same handler class again doesn't create new classes.
+ */
+class InvokerFactory {
+  private static final Logger log = LoggerFactory.getLogger(InvokerFactory.class);
+  private static final MethodHandles.Lookup lookup = MethodHandles.lookup();
+  private static final MethodType invokerType = MethodType.methodType(Object.class, Object.class, Object.class);
+  private static final MethodType consumerType = MethodType.methodType(void.class, Object.class, Object.class);
+
+  private static final ClassValue<ConcurrentHashMap<Method, EventInvoker>> invokers = new ClassValue<ConcurrentHashMap<Method, EventInvoker>>() {
+    @Override
+    protected ConcurrentHashMap<Method, EventInvoker> computeValue(Class<?> type) {
+      return new ConcurrentHashMap<>();
+    }
+  };
+
+  static EventInvoker getInvoker(Method method) {
+    return invokers.get(method.getDeclaringClass()).computeIfAbsent(method, InvokerFactory::createInvoker);
+  }
+
+  private static EventInvoker createInvoker(Method method) {
+    MethodHandle handle;
+    try {
+      method.setAccessible(true);
+      handle = lookup.unreflect(method);
+    } catch (IllegalAccessException e) {
+      log.error("Could not access method {}", method, e);
+      throw new RuntimeException(e);
+    }
+
+    if (canSpinLambda(method)) {
+      try {
+        return spinLambda(method, handle);
+      } catch (Throwable t) {
+        log.debug("Could not create lambda for {}, will use method handle.", method, t);
+      }
+    }
+    return createMethodHandleInvoker(method, handle);
+  }
+
+  private static EventInvoker createMethodHandleInvoker(Method method, MethodHandle handle) {
+    if (Modifier.isStatic(method.getModifiers())) {
+      handle = MethodHandles.dropArguments(handle, 0, Object.class);
+    }
+    MethodHandle generic = handle.asType(invokerType);
+    return (target, event) -> generic.invokeExact(target, event);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static EventInvoker spinLambda(Method method, MethodHandle handle) throws Throwable {
+    Class<?> declaringClass = method.getDeclaringClass();
+    Class<?> eventType = Primitives.wrap(method.getParameterTypes()[0]);
+    Class<?> returnType = method.getReturnType();
+
+    if (void.class.equals(returnType)) {
+      MethodType instantiatedType = MethodType.methodType(void.class, declaringClass, eventType);
+      CallSite callSite = LambdaMetafactory.metafactory(lookup, "accept", MethodType.methodType(BiConsumer.class), consumerType, handle, instantiatedType);
+      BiConsumer<Object, Object> consumer = (BiConsumer<Object, Object>) callSite.getTarget().invokeExact();
+      return (target, event) -> {
+        consumer.accept(target, event);
+        return null;
+      };
+    } else {
+      MethodType instantiatedType = MethodType.methodType(Primitives.wrap(returnType), declaringClass, eventType);
+      CallSite callSite = LambdaMetafactory.metafactory(lookup, "invoke", MethodType.methodType(EventInvoker.class), invokerType, handle, instantiatedType);
+      return (EventInvoker) callSite.getTarget().invokeExact();
+    }
+  }
+
+  /**
+   * The spun class lives in this package and classloader, so it can only reference public types visible from here.
+   */
+  private static boolean canSpinLambda(Method method) {
+    if (Modifier.isStatic(method.getModifiers()) || !Modifier.isPublic(method.getModifiers())) {
+      return false;
+    }
+    return isAccessible(method.getDeclaringClass()) && isAccessible(Primitives.wrap(method.getParameterTypes()[0])) && isAccessible(Primitives.wrap(method.getReturnType()));
+  }
+
+  private static boolean isAccessible(Class<?> clazz) {
+    while (clazz.isArray()) {
+      clazz = clazz.getComponentType();
+    }
+    if (clazz.isPrimitive()) {
+      return true;
+    }
+    if (!Modifier.isPublic(clazz.getModifiers())) {
+      return false;
+    }
+    try {
+      return Class.forName(clazz.getName(), false, InvokerFactory.class.getClassLoader()) == clazz;
+    } catch (ClassNotFoundException e) {
+      return false;
+    }
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright [2014] [Christian Loehnert, krampenschiesser@gmail.com]
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.ks.eventsystem.bus;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import de.ks.executor.LoggingUncaughtExceptionHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.Executors;
+
+/**
+ * All subscriptions of one registered object.
+ * Shared as weak target by its event handlers and enqueued to the sweeper once the object is collected.
+ */
+class Registration extends WeakReference<Object> {
+  private static final Logger log = LoggerFactory.getLogger(Registration.class);
+  private static final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+
+  static {
+    Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()//
+      .setDaemon(true)//
+      .setNameFormat("Eventsystem-sweeper-%d")//
+      .setUncaughtExceptionHandler(new LoggingUncaughtExceptionHandler())//
+      .build()).execute(Registration::sweep);
+  }
+
+  protected final EventBus eventBus;
+  protected final ArrayListMultimap<Class<?>, EventHandler> subscriptions = ArrayListMultimap.create();
+
+  Registration(EventBus eventBus, Object target) {
+    super(target, queue);
+    this.eventBus = eventBus;
+  }
+
+  private static void sweep() {
+    while (!Thread.currentThread().isInterrupted()) {
+      try {
+        Registration registration = (Registration) queue.remove();
+        log.trace("Removing {} handlers of collected subscriber", registration.subscriptions.size());
+        registration.eventBus.removeRegistration(registration);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (RuntimeException e) {
+        log.error("Could not remove collected subscriber", e);
+      }
+    }
+  }
+}
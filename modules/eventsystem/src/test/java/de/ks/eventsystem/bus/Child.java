@@ -18,5 +18,5 @@ package de.ks.eventsystem.bus;
 /**
  *
  */
-public class Child extends Parent {
+public class Child extends Parent implements Marker {
 }
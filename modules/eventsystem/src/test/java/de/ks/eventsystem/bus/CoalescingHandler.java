@@ -0,0 +1,62 @@
+/*
+ * Copyright [2014] [Christian Loehnert, krampenschiesser@gmail.com]
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.ks.eventsystem.bus;
+
+import com.google.common.eventbus.Subscribe;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class CoalescingHandler {
+  private final CountDownLatch latch = new CountDownLatch(1);
+  private final AtomicInteger invocations = new AtomicInteger();
+  private volatile Integer last;
+  private final List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+
+  @Coalesce(100)
+  @Subscribe
+  public void onInteger(Integer event) {
+    invocations.incrementAndGet();
+    last = event;
+    if (event == 99) {
+      latch.countDown();
+    }
+  }
+
+  @Coalesce(10000)
+  @Subscribe
+  public void onIntegers(List<Integer> events) {
+    batches.add(events);
+  }
+
+  public CountDownLatch getLatch() {
+    return latch;
+  }
+
+  public int getInvocations() {
+    return invocations.get();
+  }
+
+  public Integer getLast() {
+    return last;
+  }
+
+  public List<List<Integer>> getBatches() {
+    return batches;
+  }
+}
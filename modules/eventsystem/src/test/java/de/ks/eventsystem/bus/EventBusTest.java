@@ -15,10 +15,13 @@
 
 package de.ks.eventsystem.bus;
 
+import com.google.common.eventbus.Subscribe;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.*;
@@ -57,6 +60,19 @@ public class EventBusTest {
     assertEquals(3, eventBus.handlers.size());
   }
 
+  @Test
+  public void testSweepCollectedHandler() throws Exception {
+    eventBus.register(new Handler());
+    eventBus.register(new ReceivingHandler(0));
+    assertEquals(7, eventBus.handlers.size());
+
+    for (int i = 0; i < 100 && !eventBus.handlers.isEmpty(); i++) {
+      System.gc();
+      Thread.sleep(50);
+    }
+    assertTrue(eventBus.handlers.isEmpty());
+  }
+
   @Test
   public void testPostAsyncInteger() throws Exception {
     int COUNT = 40;
@@ -88,4 +104,114 @@ public class EventBusTest {
     assertSame(child, handler.getParent());
     assertSame(child, handler.getChild());
   }
+
+  @Test
+  public void testPostInterface() throws Exception {
+    ReceivingHandler handler = new ReceivingHandler(0);
+    eventBus.register(handler);
+
+    eventBus.post(new Parent());
+    assertNull(handler.getMarker());
+
+    Child child = new Child();
+    eventBus.post(child);
+    assertSame(child, handler.getMarker());
+  }
+
+  @Test
+  public void testDispatchTableChangesOnRegister() throws Exception {
+    Parent first = new Parent();
+    Parent second = new Parent();
+    Parent third = new Parent();
+    ReceivingHandler handler = new ReceivingHandler(0);
+
+    eventBus.post(first);
+    eventBus.register(handler);
+    eventBus.post(second);
+    assertSame(second, handler.getParent());
+
+    eventBus.unregister(handler);
+    eventBus.post(third);
+    assertSame(second, handler.getParent());
+  }
+
+  @Test
+  public void testCoalesceLatestEvent() throws Exception {
+    CoalescingHandler handler = new CoalescingHandler();
+    eventBus.register(handler);
+
+    for (int i = 0; i < 100; i++) {
+      eventBus.post(i);
+    }
+    assertTrue(handler.getLatch().await(15, TimeUnit.SECONDS));
+    assertEquals(Integer.valueOf(99), handler.getLast());
+    assertTrue(handler.getInvocations() < 100);
+  }
+
+  @Test
+  public void testCoalesceBatch() throws Exception {
+    CoalescingHandler handler = new CoalescingHandler();
+    eventBus.register(handler);
+
+    for (int i = 0; i < 9; i++) {
+      eventBus.post(i);
+    }
+    eventBus.postAndWait(9);
+
+    assertEquals(1, handler.getBatches().size());
+    List<Integer> batch = handler.getBatches().get(0);
+    assertEquals(10, batch.size());
+    assertEquals(Integer.valueOf(0), batch.get(0));
+    assertEquals(Integer.valueOf(9), batch.get(9));
+  }
+
+  @Test
+  public void testCoalesceBatchWildcard() throws Exception {
+    WildcardHandler handler = new WildcardHandler();
+    eventBus.register(handler);
+
+    eventBus.post("no number");
+    eventBus.postAndWait(1);
+
+    assertEquals(1, handler.batches.size());
+    assertEquals(Collections.singletonList(1), handler.batches.get(0));
+  }
+
+  @Test
+  public void testCoalesceRawListRejected() throws Exception {
+    RawListHandler handler = new RawListHandler();
+    try {
+      eventBus.register(handler);
+      fail("raw list accepted");
+    } catch (IllegalArgumentException e) {
+      //expected
+    }
+    eventBus.postAndWait(1);
+    assertNull(handler.received);
+  }
+
+  public static class WildcardHandler {
+    final List<List<? extends Number>> batches = new CopyOnWriteArrayList<>();
+
+    @Coalesce(10000)
+    @Subscribe
+    public void onNumbers(List<? extends Number> events) {
+      batches.add(events);
+    }
+  }
+
+  public static class RawListHandler {
+    volatile Integer received;
+
+    @Subscribe
+    public void onInteger(Integer event) {
+      received = event;
+    }
+
+    @Coalesce
+    @Subscribe
+    @SuppressWarnings("rawtypes")
+    public void onEvents(List events) {
+    }
+  }
 }
@@ -0,0 +1,151 @@
+/*
+ * Copyright [2014] [Christian Loehnert, krampenschiesser@gmail.com]
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.ks.eventsystem.bus;
+
+import com.google.common.eventbus.Subscribe;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+public class EventDispatchExecutorTest {
+  private EventDispatchExecutor executor;
+
+  @After
+  public void tearDown() throws Exception {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void testQueueDepthPerEventType() throws Exception {
+    executor = new EventDispatchExecutor(1, 2, new ThreadPoolExecutor.DiscardPolicy());
+    CountDownLatch blocker = new CountDownLatch(1);
+    CountDownLatch started = new CountDownLatch(1);
+    executor.submit(Object.class, () -> {
+      started.countDown();
+      awaitQuietly(blocker);
+    });
+    started.await(5, TimeUnit.SECONDS);
+
+    Future<?> first = executor.submit(Integer.class, () -> {
+    });
+    Future<?> second = executor.submit(Integer.class, () -> {
+    });
+    Future<?> rejected = executor.submit(Integer.class, () -> {
+    });
+    Future<?> otherType = executor.submit(String.class, () -> {
+    });
+    assertEquals(2, executor.getQueuedCount(Integer.class));
+    assertEquals(3, executor.getQueuedCount());
+
+    blocker.countDown();
+    first.get(5, TimeUnit.SECONDS);
+    second.get(5, TimeUnit.SECONDS);
+    otherType.get(5, TimeUnit.SECONDS);
+    assertTrue(rejected.isDone());
+    assertTrue(rejected.isCancelled());
+    assertEquals(0, executor.getQueuedCount());
+  }
+
+  @Test
+  public void testDiscardOldest() throws Exception {
+    executor = new EventDispatchExecutor(1, 1, new ThreadPoolExecutor.DiscardOldestPolicy());
+    CountDownLatch blocker = new CountDownLatch(1);
+    CountDownLatch started = new CountDownLatch(1);
+    executor.submit(Object.class, () -> {
+      started.countDown();
+      awaitQuietly(blocker);
+    });
+    started.await(5, TimeUnit.SECONDS);
+
+    EventBus eventBus = new EventBus();
+    eventBus.setExecutorService(executor);
+    AsyncHandler handler = new AsyncHandler();
+    eventBus.register(handler);
+
+    Thread waitingPost = new Thread(() -> eventBus.postAndWait(1));
+    waitingPost.start();
+    while (executor.getQueue().isEmpty()) {
+      Thread.sleep(5);
+    }
+    AtomicBoolean ran = new AtomicBoolean();
+    Future<?> newest = executor.submit(Integer.class, () -> ran.set(true));
+
+    waitingPost.join(5000);
+    assertFalse("discarded oldest event releases the waiting post", waitingPost.isAlive());
+    assertEquals(1, executor.getQueuedCount(Integer.class));
+
+    blocker.countDown();
+    newest.get(5, TimeUnit.SECONDS);
+    assertTrue(ran.get());
+    assertTrue(handler.events.isEmpty());
+    assertEquals(0, executor.getQueuedCount());
+  }
+
+  @Test
+  public void testRejectedByCallerRuns() throws Exception {
+    executor = new EventDispatchExecutor(1, 0, new ThreadPoolExecutor.CallerRunsPolicy());
+    AtomicBoolean ran = new AtomicBoolean();
+    Future<?> future = executor.submit(Integer.class, () -> ran.set(true));
+    assertTrue(ran.get());
+    assertTrue(future.isDone());
+    assertFalse(future.isCancelled());
+  }
+
+  @Test
+  public void testMetrics() throws Exception {
+    executor = new EventDispatchExecutor(2, 100, new ThreadPoolExecutor.CallerRunsPolicy());
+    assertEquals(0, executor.getP99Latency(TimeUnit.NANOSECONDS));
+
+    for (int i = 0; i < 10; i++) {
+      executor.submit(Integer.class, () -> awaitQuietly(new CountDownLatch(1), 5)).get();
+    }
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    assertEquals(10, executor.getCompletedTaskCount());
+    assertTrue(executor.getP99Latency(TimeUnit.MILLISECONDS) >= 4);
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    awaitQuietly(latch, 5000);
+  }
+
+  private static void awaitQuietly(CountDownLatch latch, long millis) {
+    try {
+      latch.await(millis, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  public static class AsyncHandler {
+    final List<Integer> events = new CopyOnWriteArrayList<>();
+
+    @Subscribe
+    @HandleInThread(HandlingThread.Async)
+    public void onEvent(Integer event) {
+      events.add(event);
+    }
+  }
+}
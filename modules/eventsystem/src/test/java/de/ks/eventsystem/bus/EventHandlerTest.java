@@ -42,4 +42,23 @@ public class EventHandlerTest {
     assertFalse(new EventHandler(null, null, new Handler(), nonConsumingMethod).handleEvent(null, false));
     assertFalse(new EventHandler(null, null, new Handler(), validMethod).handleEvent(null, false));
   }
+
+  @Test
+  public void testInvokerCreation() throws Throwable {
+    Method publicMethod = ReceivingHandler.class.getMethod("onParent", Parent.class);
+    Method primitiveMethod = ReceivingHandler.class.getMethod("onInt", int.class);
+    Method protectedMethod = ReflectionUtil.getMethod(Handler.class, "validConsumingHandler");
+
+    assertSame(InvokerFactory.getInvoker(publicMethod), InvokerFactory.getInvoker(publicMethod));
+
+    ReceivingHandler handler = new ReceivingHandler(1);
+    Parent parent = new Parent();
+    assertNull(InvokerFactory.getInvoker(publicMethod).invoke(handler, parent));
+    assertSame(parent, handler.getParent());
+
+    InvokerFactory.getInvoker(primitiveMethod).invoke(handler, 0);
+    assertEquals(0, handler.getLatch().getCount());
+
+    assertEquals(Boolean.TRUE, InvokerFactory.getInvoker(protectedMethod).invoke(new Handler(), null));
+  }
 }
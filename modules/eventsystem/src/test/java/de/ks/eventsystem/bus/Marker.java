@@ -18,13 +18,5 @@ package de.ks.eventsystem.bus;
 /**
  *
  */
-class EventExecution {
-  protected Object event;
-  protected EventHandler handler;
-
-  public EventExecution(Object event, EventHandler handler) {
-    this.event = event;
-    this.handler = handler;
-  }
-
+public interface Marker {
 }
@@ -26,6 +26,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 public class ReceivingHandler {
   private Child child;
   private Parent parent;
+  private Marker marker;
   private AtomicInteger sum = new AtomicInteger();
   private final CountDownLatch latch;
 
@@ -43,6 +44,11 @@ public class ReceivingHandler {
     this.child = child;
   }
 
+  @Subscribe
+  public void onMarker(Marker marker) {
+    this.marker = marker;
+  }
+
   @HandleInThread(HandlingThread.Async)
   @Subscribe
   public void onInt(int i) {
@@ -66,6 +72,10 @@ public class ReceivingHandler {
     return parent;
   }
 
+  public Marker getMarker() {
+    return marker;
+  }
+
   public CountDownLatch getLatch() {
     return latch;
   }
@@ -19,18 +19,34 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 public class JavaFXExecutorService extends AbstractExecutorService {
   private static final Logger log = LoggerFactory.getLogger(JavaFXExecutorService.class);
   final ExecutorService mock;
 
+  protected final Queue<Runnable> inputQueue = new ConcurrentLinkedQueue<>();
   protected final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+  protected final Queue<Runnable> backgroundQueue = new ConcurrentLinkedQueue<>();
   protected volatile boolean shutdown = false;
+  /**
+   * Max time spent executing queued runnables per callback, the rest is rescheduled so the pulse can render.
+   */
+  protected volatile long frameBudget = TimeUnit.MILLISECONDS.toNanos(8);
   protected final AtomicReference<QueueListener> queueListener = new AtomicReference<>();
+  /**
+   * Queued and currently executed runnables.
+   */
+  protected final AtomicInteger pending = new AtomicInteger();
+  /**
+   * Monitor notified whenever pending drops to 0 or the service is shut down.
+   */
+  protected final Object idle = new Object();
 
   public JavaFXExecutorService() {
     this(null);
@@ -43,6 +59,7 @@ public class JavaFXExecutorService extends AbstractExecutorService {
   @Override
   public void shutdown() {
     shutdown = true;
+    signalIdle();
   }
 
   private void checkNotShutdown() {
@@ -54,7 +71,14 @@ public class JavaFXExecutorService extends AbstractExecutorService {
   @Override
   public List<Runnable> shutdownNow() {
     shutdown = true;
-    return new ArrayList<>(queue);
+    ArrayList<Runnable> retval = new ArrayList<>();
+    for (Queue<Runnable> lane : Arrays.asList(inputQueue, queue, backgroundQueue)) {
+      for (Runnable runnable = lane.poll(); runnable != null; runnable = lane.poll()) {
+        retval.add(runnable);
+      }
+    }
+    taskDone(retval.size());
+    return retval;
   }
 
   @Override
@@ -64,25 +88,74 @@ public class JavaFXExecutorService extends AbstractExecutorService {
 
   @Override
   public boolean isTerminated() {
-    return false;
+    return shutdown && pending.get() == 0;
   }
 
   @Override
   public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
-    return false;
+    if (isCurrentThread()) {
+      return isTerminated();//would block the runnables we wait for
+    }
+    return awaitIdle(unit.toNanos(timeout), true);
+  }
+
+  /**
+   * @return true if there are no pending runnables (and the service is terminated if requested)
+   */
+  protected boolean awaitIdle(long timeoutNanos, boolean terminated) throws InterruptedException {
+    long deadline = System.nanoTime() + timeoutNanos;
+    synchronized (idle) {
+      while (pending.get() > 0 || (terminated && !shutdown)) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+          return false;
+        }
+        TimeUnit.NANOSECONDS.timedWait(idle, remaining);
+      }
+      return true;
+    }
+  }
+
+  protected void taskDone(int count) {
+    if (count > 0 && pending.addAndGet(-count) == 0) {
+      signalIdle();
+    }
+  }
+
+  private void signalIdle() {
+    synchronized (idle) {
+      idle.notifyAll();
+    }
   }
 
   @Override
   public void execute(Runnable command) {
+    execute(command, JavaFXPriority.NORMAL);
+  }
+
+  public void execute(Runnable command, JavaFXPriority priority) {
     checkNotShutdown();
     if (isCurrentThread()) {
       command.run();
     } else {
-      queue.add(command);
+      pending.incrementAndGet();
+      getQueue(priority).add(command);
       triggerQueueReading();
     }
   }
 
+  public Future<?> submit(Runnable task, JavaFXPriority priority) {
+    RunnableFuture<Void> future = newTaskFor(task, null);
+    execute(future, priority);
+    return future;
+  }
+
+  public <T> Future<T> submit(Callable<T> task, JavaFXPriority priority) {
+    RunnableFuture<T> future = newTaskFor(task);
+    execute(future, priority);
+    return future;
+  }
+
   private boolean isCurrentThread() {
     if (mock != null) {
       return false;
@@ -121,37 +194,27 @@ public class JavaFXExecutorService extends AbstractExecutorService {
   }
 
   public void waitInternal(boolean interrupt) {
-    if (queueListener.get() == null) {
-      return;
-    }
     if (isCurrentThread()) {
       return;
     }
+    if (interrupt) {
+      QueueListener listener = queueListener.get();
+      Thread thread = listener != null ? listener.getThread() : null;
+      if (thread != null) {
+        thread.interrupt();
+      }
+    }
 
     long MAX_TIMEOUT = 1000 * 10;
-    long start = System.currentTimeMillis();
-
-
-    while (queueListener.get().isRunning()) {
-      try {
-        TimeUnit.MILLISECONDS.sleep(100);
-
-        Thread thread = queueListener.get().getThread();
-        if (interrupt) {
-          if (thread != null) {
-            thread.interrupt();
-          }
-        } else if (System.currentTimeMillis() - start > MAX_TIMEOUT) {
-          if (thread != null) {
-            String msg = "Waited for " + MAX_TIMEOUT + "ms, will now interrupt the thread";
-            log.warn(msg);
-            thread.interrupt();
-            throw new RuntimeException(msg);
-          }
-        }
-      } catch (InterruptedException e) {
-        log.trace("Got Interrupted while waiting for tasks.", e);
+    try {
+      if (!awaitIdle(TimeUnit.MILLISECONDS.toNanos(MAX_TIMEOUT), false)) {
+        String msg = "Waited for " + MAX_TIMEOUT + "ms, " + pending.get() + " runnables still pending";
+        log.warn(msg);
+        throw new RuntimeException(msg);
       }
+    } catch (InterruptedException e) {
+      log.trace("Got Interrupted while waiting for tasks.", e);
+      Thread.currentThread().interrupt();
     }
   }
 
@@ -159,58 +222,113 @@ public class JavaFXExecutorService extends AbstractExecutorService {
     return queue;
   }
 
+  public Queue<Runnable> getQueue(JavaFXPriority priority) {
+    switch (priority) {
+      case INPUT:
+        return inputQueue;
+      case BACKGROUND:
+        return backgroundQueue;
+      default:
+        return queue;
+    }
+  }
+
+  /**
+   * @return the highest priority queue containing runnables or null if all are empty
+   */
+  protected Queue<Runnable> getNextQueue() {
+    if (!inputQueue.isEmpty()) {
+      return inputQueue;
+    } else if (!queue.isEmpty()) {
+      return queue;
+    } else if (!backgroundQueue.isEmpty()) {
+      return backgroundQueue;
+    } else {
+      return null;
+    }
+  }
+
   public int getActiveCount() {
-    return queue.size();
+    return pending.get();
+  }
+
+  public long getFrameBudget(TimeUnit unit) {
+    return unit.convert(frameBudget, TimeUnit.NANOSECONDS);
+  }
+
+  public void setFrameBudget(long budget, TimeUnit unit) {
+    this.frameBudget = unit.toNanos(budget);
   }
 
   protected static class QueueListener implements Runnable {
     private static final Logger log = LoggerFactory.getLogger(QueueListener.class);
     protected final JavaFXExecutorService service;
-    protected final Queue<Runnable> queue;
     protected volatile boolean running = true;
     protected volatile Thread thread;
 
     public QueueListener(JavaFXExecutorService service) {
       this.service = service;
-      queue = service.getQueue();
     }
 
     @Override
     public void run() {
       log.trace("Start queue processing.");
       thread = Thread.currentThread();
-      if (queue.isEmpty()) {
-        running = false;
+      if (service.getNextQueue() == null) {
+        stop();
         return;
       }
       if (isCurrentThread()) {
+        boolean done = true;
         try {
-          executeQueuedRunnables();
+          done = executeQueuedRunnables();
         } finally {
-          running = false;
+          if (done) {
+            stop();
+          } else {
+            reschedule();
+          }
         }
       } else {
         log.warn("Not in FX application thread. Will not execute runnables");
       }
     }
 
-    public void executeQueuedRunnables() {
-      long millis = System.currentTimeMillis();
+    private void stop() {
+      running = false;
+      if (service.getNextQueue() != null) {
+        service.triggerQueueReading();//added after our last check
+      }
+    }
+
+    /**
+     * @return true if all runnables were executed, false if the frame budget is exhausted
+     */
+    public boolean executeQueuedRunnables() {
+      long startTime = System.nanoTime();
       int count = 1;
 
-      Runnable runnable = queue.peek();
-      while (runnable != null && shouldResume(count, millis)) {
-        log.trace("Executing runnable #{}", count);
-        try {
-          runnable.run();
-        } catch (Throwable e) {
-          log.error("Could not execute runnable #{}", count, e);
-        } finally {
-          queue.poll();
-          count++;
+      Queue<Runnable> current = service.getNextQueue();
+      while (current != null) {
+        if (current != service.inputQueue && !shouldResume(count, startTime)) {
+          log.trace("Frame budget exhausted after {} runnables, rescheduling.", count - 1);
+          return false;
+        }
+        Runnable runnable = current.poll();
+        if (runnable != null) {//might have been drained by shutdownNow
+          log.trace("Executing runnable #{}", count);
+          try {
+            runnable.run();
+          } catch (Throwable e) {
+            log.error("Could not execute runnable #{}", count, e);
+          } finally {
+            service.taskDone(1);
+            count++;
+          }
         }
-        runnable = queue.peek();
+        current = service.getNextQueue();
       }
+      return true;
     }
 
     private boolean isCurrentThread() {
@@ -222,15 +340,20 @@ public class JavaFXExecutorService extends AbstractExecutorService {
     }
 
     protected boolean shouldResume(int count, long startTime) {
-      return serviceIsRunning();
-    }
-
-    private boolean serviceIsRunning() {
-      return !service.isShutdown();
+      return count == 1 || System.nanoTime() - startTime < service.frameBudget;
     }
 
     public void reschedule() {
-      Platform.runLater(this);
+      if (service.mock != null) {
+        try {
+          service.mock.execute(this);
+        } catch (RejectedExecutionException e) {
+          log.debug("Executor of the queue listener is shut down, stop processing.");
+          running = false;
+        }
+      } else {
+        Platform.runLater(this);
+      }
     }
 
     public boolean isRunning() {
@@ -0,0 +1,31 @@
+/*
+ * Copyright [2014] [Christian Loehnert, krampenschiesser@gmail.com]
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.ks.executor;
+
+/**
+ * Lanes of the {@link JavaFXExecutorService}, higher lanes are always drained first.
+ */
+public enum JavaFXPriority {
+  /**
+   * Reactions to user input, executed even if the time budget of the current pulse is exhausted.
+   */
+  INPUT,
+  NORMAL,
+  /**
+   * Work that can wait for idle pulses, eg. prefilling views.
+   */
+  BACKGROUND
+}
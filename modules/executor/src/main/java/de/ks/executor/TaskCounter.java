@@ -0,0 +1,60 @@
+/*
+ * Copyright [2014] [Christian Loehnert, krampenschiesser@gmail.com]
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.ks.executor;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Counts running tasks and wakes up waiters as soon as the count drops to 0.
+ */
+public class TaskCounter {
+  protected final AtomicInteger count = new AtomicInteger();
+
+  public void increment() {
+    count.incrementAndGet();
+  }
+
+  public void decrement() {
+    if (count.decrementAndGet() == 0) {
+      signal();
+    }
+  }
+
+  public int get() {
+    return count.get();
+  }
+
+  /**
+   * Wakes up all waiters to reevaluate their abort condition.
+   */
+  public void signal() {
+    synchronized (count) {
+      count.notifyAll();
+    }
+  }
+
+  /**
+   * Blocks until no task is running or abort returns true.
+   */
+  public void awaitZero(BooleanSupplier abort) throws InterruptedException {
+    synchronized (count) {
+      while (count.get() > 0 && !abort.getAsBoolean()) {
+        count.wait();
+      }
+    }
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright [2014] [Christian Loehnert, krampenschiesser@gmail.com]
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.ks.executor;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects the durations of blocking waits, eg. waiting for an activity to finish loading.
+ */
+public class WaitStatistics {
+  protected final String name;
+  protected final LongAdder count = new LongAdder();
+  protected final LongAdder total = new LongAdder();
+  protected final AtomicLong max = new AtomicLong();
+  protected volatile long last;
+
+  public WaitStatistics(String name) {
+    this.name = name;
+  }
+
+  /**
+   * @param startNanos value of System.nanoTime() when the wait started
+   */
+  public void recordSince(long startNanos) {
+    record(System.nanoTime() - startNanos);
+  }
+
+  public void record(long nanos) {
+    count.increment();
+    total.add(nanos);
+    max.accumulateAndGet(nanos, Math::max);
+    last = nanos;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public long getCount() {
+    return count.sum();
+  }
+
+  public long getTotal(TimeUnit unit) {
+    return unit.convert(total.sum(), TimeUnit.NANOSECONDS);
+  }
+
+  public long getMax(TimeUnit unit) {
+    return unit.convert(max.get(), TimeUnit.NANOSECONDS);
+  }
+
+  public long getLast(TimeUnit unit) {
+    return unit.convert(last, TimeUnit.NANOSECONDS);
+  }
+
+  public long getAverage(TimeUnit unit) {
+    long count = getCount();
+    return count == 0 ? 0 : unit.convert(total.sum() / count, TimeUnit.NANOSECONDS);
+  }
+
+  @Override
+  public String toString() {
+    return name + "[count=" + getCount() + ", avg=" + getAverage(TimeUnit.MILLISECONDS) + "ms, max=" + getMax(TimeUnit.MILLISECONDS) + "ms, last=" + getLast(TimeUnit.MILLISECONDS) + "ms]";
+  }
+}
@@ -21,12 +21,16 @@ import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.LongAdder;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
 
 public class JavaFXExecutorServiceTest {
   private static final Logger log = LoggerFactory.getLogger(JavaFXExecutorServiceTest.class);
@@ -69,6 +73,86 @@ public class JavaFXExecutorServiceTest {
     executor.shutdown();
   }
 
+  @Test
+  public void testAwaitTermination() throws Exception {
+    for (int i = 0; i < 3; i++) {
+      executor.submit(createSleepingRunnable(50));
+    }
+    executor.shutdown();
+    assertFalse(executor.isTerminated());
+    assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    assertTrue(executor.isTerminated());
+    assertEquals(3, adder.sum());
+  }
+
+  @Test
+  public void testShutdownNowDrainsQueue() throws Exception {
+    CountDownLatch blocker = new CountDownLatch(1);
+    delegate.submit(() -> awaitQuietly(blocker));
+    for (int i = 0; i < 5; i++) {
+      executor.submit(createSleepingRunnable(50));
+    }
+    assertEquals(5, executor.shutdownNow().size());
+    assertTrue(executor.isTerminated());
+    blocker.countDown();
+    assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+    assertEquals(0, adder.sum());
+  }
+
+  @Test
+  public void testWaitForAllTasksDone() throws Exception {
+    for (int i = 0; i < 5; i++) {
+      executor.submit(createSleepingRunnable(20));
+    }
+    executor.waitForAllTasksDone();
+    assertEquals(5, adder.sum());
+    assertEquals(0, executor.getActiveCount());
+  }
+
+  @Test
+  public void testPriorityLanes() throws Exception {
+    List<String> executed = new CopyOnWriteArrayList<>();
+    CountDownLatch blocker = new CountDownLatch(1);
+    delegate.submit(() -> awaitQuietly(blocker));
+
+    executor.submit(() -> executed.add("background"), JavaFXPriority.BACKGROUND);
+    executor.submit(() -> executed.add("normal"));
+    executor.submit(() -> executed.add("input"), JavaFXPriority.INPUT);
+    blocker.countDown();
+    executor.submit(() -> executed.add("last"), JavaFXPriority.BACKGROUND).get(5, TimeUnit.SECONDS);
+
+    assertEquals(Arrays.asList("input", "normal", "background", "last"), executed);
+  }
+
+  @Test
+  public void testFrameBudgetReschedules() throws Exception {
+    List<String> executed = new CopyOnWriteArrayList<>();
+    CountDownLatch blocker = new CountDownLatch(1);
+    delegate.submit(() -> awaitQuietly(blocker));
+
+    executor.setFrameBudget(1, TimeUnit.MILLISECONDS);
+    for (int i = 0; i < 3; i++) {
+      String id = "task" + i;
+      executor.submit(() -> {
+        createSleepingRunnable(5).run();
+        executed.add(id);
+      });
+    }
+    delegate.submit(() -> executed.add("pulse"));
+    blocker.countDown();
+    executor.submit(() -> executed.add("last"), JavaFXPriority.BACKGROUND).get(5, TimeUnit.SECONDS);
+
+    assertEquals(Arrays.asList("task0", "pulse", "task1", "task2", "last"), executed);
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
   int count;
 
   Runnable createSleepingRunnable(int time) {
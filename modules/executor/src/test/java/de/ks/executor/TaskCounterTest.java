@@ -0,0 +1,67 @@
+/*
+ * Copyright [2014] [Christian Loehnert, krampenschiesser@gmail.com]
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.ks.executor;
+
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class TaskCounterTest {
+  @Test(timeout = 5000)
+  public void testAwaitZero() throws Exception {
+    TaskCounter counter = new TaskCounter();
+    counter.awaitZero(() -> false);
+
+    counter.increment();
+    CompletableFuture<Void> waiting = CompletableFuture.runAsync(() -> {
+      try {
+        counter.awaitZero(() -> false);
+      } catch (InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+    });
+    Thread.sleep(50);
+    assertFalse(waiting.isDone());
+
+    counter.decrement();
+    waiting.get(1, TimeUnit.SECONDS);
+    assertEquals(0, counter.get());
+  }
+
+  @Test(timeout = 5000)
+  public void testAbort() throws Exception {
+    TaskCounter counter = new TaskCounter();
+    counter.increment();
+    boolean[] abort = {false};
+    CompletableFuture<Void> waiting = CompletableFuture.runAsync(() -> {
+      try {
+        counter.awaitZero(() -> abort[0]);
+      } catch (InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+    });
+    Thread.sleep(50);
+    assertFalse(waiting.isDone());
+
+    abort[0] = true;
+    counter.signal();
+    waiting.get(1, TimeUnit.SECONDS);
+    assertEquals(1, counter.get());
+  }
+}
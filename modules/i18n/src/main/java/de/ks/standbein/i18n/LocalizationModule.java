@@ -49,6 +49,10 @@ public class LocalizationModule extends AbstractModule {
     bind(DateTimeFormatter.class).annotatedWith(Names.named(TIME_FORMAT)).toInstance(DateTimeFormatter.ofPattern("HH.mm.ss"));
   }
 
+  /**
+   * The injected bundle is the global one, it doesn't contain package-local translations.
+   * Use {@link Localized#getBundle(Class)} or {@link Localized#get(Class, String, Object...)} for those.
+   */
   @Provides
   @Singleton
   @Inject
@@ -17,16 +17,25 @@ package de.ks.standbein.i18n;
 
 import de.ks.eventsystem.bus.EventBus;
 import de.ks.standbein.i18n.event.LanguageChangedEvent;
+import javafx.application.Platform;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
+import java.io.File;
 import java.lang.reflect.Field;
 import java.net.URL;
+import java.util.HashMap;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 
 import static de.ks.standbein.i18n.LocalizationModule.*;
 
@@ -38,7 +47,24 @@ public class Localized {
   private static final Logger log = LoggerFactory.getLogger(Localized.class);
 
   protected UTF8Control control = new UTF8Control();
-  protected ResourceBundleWrapper bundle;
+  protected volatile ResourceBundleWrapper bundle;
+  /**
+   * package-local bundles of the current locale, keyed by package prefix
+   */
+  protected volatile ConcurrentHashMap<String, ResourceBundleWrapper> packageBundles = new ConcurrentHashMap<>();
+  /**
+   * resolved package-local resource bundles per locale, empty if the package has none
+   */
+  protected final ConcurrentHashMap<Locale, ConcurrentHashMap<String, Optional<ResourceBundle>>> localBundles = new ConcurrentHashMap<>();
+  /**
+   * shared texts, keyed by package prefix (or "*" for the global bundle) and key
+   */
+  protected final ConcurrentHashMap<String, LocalizedText> texts = new ConcurrentHashMap<>();
+  /**
+   * all package prefixes resolved in this run, independent of the locale
+   */
+  protected final Set<String> usedPackages = ConcurrentHashMap.newKeySet();
+  protected PackageIndex packageIndex;
 
   protected final String fileName;
   protected final String baseName;
@@ -51,6 +77,7 @@ public class Localized {
     this.locale = locale;
     this.fileName = fileName;
     this.baseName = baseName;
+    this.packageIndex = new PackageIndex(new File(System.getProperty("java.io.tmpdir"), "standbein_" + baseName + ".idx"));
   }
 
   @com.google.inject.Inject(optional = true)
@@ -62,6 +89,7 @@ public class Localized {
     String path = baseName + "_" + locale.getLanguage() + ".properties";
     ResourceBundle current = ResourceBundle.getBundle(baseName, locale, control);
     this.bundle = new ResourceBundleWrapper(fileName, current, null, path, locale);
+    this.packageBundles = new ConcurrentHashMap<>();
   }
 
   private boolean isInitialized() {
@@ -70,6 +98,7 @@ public class Localized {
 
   /**
    * Use this method in order to notify possible listeners and replace the resource bundle.
+   * The {@link LanguageChangedEvent} is posted after the shared texts got updated.
    *
    * @param newLocale
    */
@@ -77,8 +106,40 @@ public class Localized {
     Locale oldLocale = locale;
     locale = newLocale;
     initialize();
-    if (eventBus != null) {
-      eventBus.post(new LanguageChangedEvent(oldLocale, newLocale));
+    updateTexts(() -> {
+      if (eventBus != null) {
+        eventBus.post(new LanguageChangedEvent(oldLocale, newLocale));
+      }
+    });
+  }
+
+  /**
+   * Resolves all shared texts with the current locale and applies them in one pass in the JavaFX thread.
+   *
+   * @param afterUpdate run in the same pass once all texts are applied
+   */
+  protected void updateTexts(Runnable afterUpdate) {
+    if (texts.isEmpty()) {
+      afterUpdate.run();
+      return;
+    }
+    Map<LocalizedText, String> values = new HashMap<>(texts.size());
+    for (LocalizedText text : texts.values()) {
+      values.put(text, format(getBundle(text.getOwner()), text.getKey()));
+    }
+    Runnable update = () -> {
+      values.forEach(LocalizedText::update);
+      afterUpdate.run();
+    };
+    if (Platform.isFxApplicationThread()) {
+      update.run();
+    } else {
+      try {
+        Platform.runLater(update);
+      } catch (IllegalStateException e) {
+        log.debug("JavaFX toolkit not initialized, updating texts directly");
+        update.run();
+      }
     }
   }
 
@@ -92,28 +153,81 @@ public class Localized {
     return bundle;
   }
 
+  /**
+   * @return the bundle of the package of the given class if it has its own {@link #fileName} bundle,
+   * with the global bundle as fallback. Resolved once per package and locale.
+   */
   public ResourceBundleWrapper getBundle(Class callerClass) {
+    if (callerClass == null) {
+      return getBundle();
+    }
     if (!isInitialized()) {
       initialize();
     }
-    String substring = callerClass.getName().substring(0, callerClass.getName().lastIndexOf('.') + 1);
+    String packagePrefix = PACKAGE_PREFIX.get(callerClass);
+    if (!usedPackages.contains(packagePrefix)) {//only real lookups, so packages which aren't used anymore drop out of the index
+      usedPackages.add(packagePrefix);
+    }
+    return getPackageBundle(packagePrefix, callerClass.getClassLoader());
+  }
 
+  protected ResourceBundleWrapper getPackageBundle(String packagePrefix, ClassLoader loader) {
+    ResourceBundleWrapper root = bundle;
+    ConcurrentHashMap<String, ResourceBundleWrapper> current = packageBundles;
+    ResourceBundleWrapper wrapper = current.get(packagePrefix);
+    if (wrapper == null) {
+      wrapper = current.computeIfAbsent(packagePrefix, p -> createPackageBundle(loader == null ? Localized.class.getClassLoader() : loader, p, root));
+    }
+    return wrapper;
+  }
 
-    String classRelativeBaseName = substring + fileName;
-    URL resource = callerClass.getResource("/" + control.getResourceName(classRelativeBaseName, locale));
-    if (resource == null) {
-      resource = callerClass.getResource("/" + control.getResourceName(classRelativeBaseName, control.getFallbackLocale(classRelativeBaseName, locale)));
+  protected ResourceBundleWrapper createPackageBundle(ClassLoader loader, String packagePrefix, ResourceBundleWrapper root) {
+    Locale locale = this.locale;
+    String classRelativeBaseName = packagePrefix + fileName;
+    Optional<ResourceBundle> localBundle = localBundles.computeIfAbsent(locale, l -> new ConcurrentHashMap<>())//
+      .computeIfAbsent(classRelativeBaseName, baseName -> findLocalBundle(loader, baseName, locale));
+    if (localBundle.isPresent()) {
+      return new ResourceBundleWrapper(fileName, localBundle.get(), root.getBundle(), classRelativeBaseName + "_" + locale.getLanguage() + ".properties", locale);
+    } else {
+      return root;
     }
+  }
 
+  protected Optional<ResourceBundle> findLocalBundle(ClassLoader loader, String classRelativeBaseName, Locale locale) {
+    URL resource = loader.getResource(control.getResourceName(classRelativeBaseName, locale));
+    if (resource == null) {
+      resource = loader.getResource(control.getResourceName(classRelativeBaseName, control.getFallbackLocale(classRelativeBaseName, locale)));
+    }
     if (resource != null) {
       log.debug("Found local bundle {}", classRelativeBaseName);
-      ResourceBundle localBundle = ResourceBundle.getBundle(classRelativeBaseName, locale, control);
-      return new ResourceBundleWrapper(fileName, localBundle, bundle.getBundle(), classRelativeBaseName + "_" + locale.getLanguage() + ".properties", locale);
+      return Optional.of(ResourceBundle.getBundle(classRelativeBaseName, locale, control));
     } else {
-      return bundle;
+      return Optional.empty();
     }
   }
 
+  /**
+   * Resolves the global bundle and, in parallel, the bundles of all packages recorded in the package index
+   * of the last run. Activities loaded afterwards don't need to probe the classpath for their bundles.
+   */
+  public CompletableFuture<Void> preload(Executor executor) {
+    Set<String> packages = packageIndex.read();
+    log.debug("Preloading {} package bundles", packages.size());
+    getBundle();
+    ClassLoader loader = Localized.class.getClassLoader();
+    CompletableFuture[] futures = packages.stream()//
+      .map(p -> CompletableFuture.runAsync(() -> getPackageBundle(p, loader), executor))//
+      .toArray(CompletableFuture[]::new);
+    return CompletableFuture.allOf(futures);
+  }
+
+  /**
+   * Records all packages whose bundles were used so far for the next {@link #preload(Executor)}.
+   */
+  public void writePackageIndex() {
+    packageIndex.write(usedPackages);
+  }
+
   /**
    * Use this method to get a translation for a key.
    * The key "hello.world" is stored like that:
@@ -130,20 +244,37 @@ public class Localized {
    * @return
    */
   public String get(String key, Object... args) {
-    String string = getBundle().getString(key);
-    if (args == null) {
-      return string;
-    } else {
-      for (int i = 0; i < args.length; i++) {
-        Object arg = args[i];
-        if (arg == null) {
-          string = string.replace("{" + i + "}", "null");
-        } else {
-          string = string.replace("{" + i + "}", arg.toString());
-        }
+    return format(getBundle(CALLER_RESOLVER.getCaller()), key, args);
+  }
+
+  /**
+   * Same as {@link #get(String, Object...)} but uses the bundle of the package of the given class
+   * instead of looking up the calling class.
+   */
+  public String get(Class<?> callerClass, String key, Object... args) {
+    return format(getBundle(callerClass), key, args);
+  }
+
+  /**
+   * @param owner the class whose package bundle is used, null for the global bundle
+   * @return the shared text of the key which follows locale changes, eg. for labels or menu items.
+   * Missing keys get a text of their own which is not shared and doesn't follow locale changes.
+   */
+  public LocalizedText getLocalizedText(Class<?> owner, String key) {
+    String id = (owner == null ? "*" : PACKAGE_PREFIX.get(owner)) + ":" + key;
+    LocalizedText text = texts.get(id);
+    if (text == null) {
+      ResourceBundleWrapper bundle = getBundle(owner);
+      if (!bundle.isTranslated(key)) {
+        return new LocalizedText(owner, key, format(bundle, key));
       }
-      return string;
+      text = texts.computeIfAbsent(id, k -> new LocalizedText(owner, key, format(bundle, key)));
     }
+    return text;
+  }
+
+  protected String format(ResourceBundleWrapper bundle, String key, Object... args) {
+    return bundle.getTemplate(key).format(args);
   }
 
   public String get(Field field) {
@@ -151,4 +282,32 @@ public class Localized {
     key += field.getName();
     return get(key);
   }
+
+  private static final ClassValue<String> PACKAGE_PREFIX = new ClassValue<String>() {
+    @Override
+    protected String computeValue(Class<?> type) {
+      String name = type.getName();
+      return name.substring(0, name.lastIndexOf('.') + 1);
+    }
+  };
+
+  private static final CallerResolver CALLER_RESOLVER = new CallerResolver();
+
+  /**
+   * Exposes the class context of the current thread, which is much cheaper than a stack trace.
+   * SecurityManager is deprecated for removal since Java 17, it is only subclassed and never installed.
+   * Callers which know their class can use {@link #get(Class, String, Object...)} instead.
+   */
+  @SuppressWarnings("removal")
+  static class CallerResolver extends SecurityManager {
+    Class<?> getCaller() {
+      Class[] context = getClassContext();
+      for (Class clazz : context) {
+        if (clazz != CallerResolver.class && !Localized.class.isAssignableFrom(clazz)) {
+          return clazz;
+        }
+      }
+      return Localized.class;
+    }
+  }
 }
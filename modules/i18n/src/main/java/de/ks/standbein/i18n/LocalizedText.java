@@ -0,0 +1,93 @@
+/*
+ * Copyright [2014] [Christian Loehnert, krampenschiesser@gmail.com]
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.ks.standbein.i18n;
+
+import javafx.beans.property.ReadOnlyStringProperty;
+import javafx.beans.property.ReadOnlyStringWrapper;
+import javafx.beans.property.StringProperty;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * The translation of one key, shared by everyone displaying it and updated when the locale changes.
+ * Obtain it via {@link Localized#getLocalizedText(Class, String)}.
+ */
+public class LocalizedText {
+  private final Class<?> owner;
+  private final String key;
+  private final ReadOnlyStringWrapper text;
+  private final Set<StringProperty> followers = Collections.newSetFromMap(new WeakHashMap<>());
+
+  LocalizedText(Class<?> owner, String key, String text) {
+    this.owner = owner;
+    this.key = key;
+    this.text = new ReadOnlyStringWrapper(this, "text", text);
+  }
+
+  /**
+   * Lets the target follow this translation as long as nobody else changed it.
+   * In contrast to binding the target can still be set, it is only weakly referenced.
+   */
+  public void follow(StringProperty target) {
+    synchronized (followers) {
+      followers.add(target);
+    }
+  }
+
+  /**
+   * Has to be called in the JavaFX thread if the text is displayed.
+   */
+  void update(String newText) {
+    String oldText = text.get();
+    if (Objects.equals(oldText, newText)) {
+      return;
+    }
+    text.set(newText);
+    ArrayList<StringProperty> targets;
+    synchronized (followers) {
+      targets = new ArrayList<>(followers);
+    }
+    for (StringProperty target : targets) {
+      if (!target.isBound() && Objects.equals(oldText, target.get())) {
+        target.set(newText);
+      }
+    }
+  }
+
+  public ReadOnlyStringProperty textProperty() {
+    return text.getReadOnlyProperty();
+  }
+
+  public String getText() {
+    return text.get();
+  }
+
+  public String getKey() {
+    return key;
+  }
+
+  Class<?> getOwner() {
+    return owner;
+  }
+
+  @Override
+  public String toString() {
+    return "LocalizedText{" + key + "=" + text.get() + '}';
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright [2014] [Christian Loehnert, krampenschiesser@gmail.com]
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.ks.standbein.i18n;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A translation parsed once into literal and placeholder ("{0}", "{1}"...) segments.
+ */
+class MessageTemplate {
+  private final String text;
+  private final String[] literals;
+  private final int[] placeholders;
+
+  static MessageTemplate compile(String text) {
+    List<String> literals = new ArrayList<>();
+    List<Integer> placeholders = new ArrayList<>();
+
+    int literalStart = 0;
+    int open = text.indexOf('{');
+    while (open >= 0) {
+      int close = text.indexOf('}', open);
+      if (close < 0) {
+        break;
+      }
+      String digits = text.substring(open + 1, close);
+      int index = parseIndex(digits);
+      if (index >= 0) {
+        literals.add(text.substring(literalStart, open));
+        placeholders.add(index);
+        literalStart = close + 1;
+        open = text.indexOf('{', literalStart);
+      } else {
+        open = text.indexOf('{', open + 1);
+      }
+    }
+    literals.add(text.substring(literalStart));
+
+    int[] indexes = new int[placeholders.size()];
+    for (int i = 0; i < indexes.length; i++) {
+      indexes[i] = placeholders.get(i);
+    }
+    return new MessageTemplate(text, literals.toArray(new String[literals.size()]), indexes);
+  }
+
+  /**
+   * @return the placeholder index or -1 if the digits are no canonical number (same as "{" + i + "}" would produce)
+   */
+  private static int parseIndex(String digits) {
+    if (digits.isEmpty() || digits.length() > 9 || (digits.length() > 1 && digits.charAt(0) == '0')) {
+      return -1;
+    }
+    int index = 0;
+    for (int i = 0; i < digits.length(); i++) {
+      char c = digits.charAt(i);
+      if (c < '0' || c > '9') {
+        return -1;
+      }
+      index = index * 10 + (c - '0');
+    }
+    return index;
+  }
+
+  MessageTemplate(String text, String[] literals, int[] placeholders) {
+    this.text = text;
+    this.literals = literals;
+    this.placeholders = placeholders;
+  }
+
+  /**
+   * Replaces every placeholder "{i}" with args[i], null values become "null".
+   * Placeholders without a corresponding argument are kept.
+   */
+  public String format(Object... args) {
+    if (args == null || placeholders.length == 0) {
+      return text;
+    }
+    StringBuilder builder = new StringBuilder(text.length() + 16 * placeholders.length);
+    for (int i = 0; i < placeholders.length; i++) {
+      builder.append(literals[i]);
+      int index = placeholders[i];
+      if (index < args.length) {
+        builder.append(args[index]);
+      } else {
+        builder.append('{').append(index).append('}');
+      }
+    }
+    builder.append(literals[placeholders.length]);
+    return builder.toString();
+  }
+
+  MessageTemplate withSuffix(String suffix) {
+    String[] suffixed = literals.clone();
+    suffixed[suffixed.length - 1] += suffix;
+    return new MessageTemplate(text + suffix, suffixed, placeholders);
+  }
+
+  public String getText() {
+    return text;
+  }
+
+  @Override
+  public String toString() {
+    return text;
+  }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright [2014] [Christian Loehnert, krampenschiesser@gmail.com]
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.ks.standbein.i18n;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Collects missing translation keys of all bundles of this process.
+ * Every key is only recorded once, the missing key file is written in batches by a background thread.
+ */
+public class MissingKeyRecorder {
+  private static final Logger log = LoggerFactory.getLogger(MissingKeyRecorder.class);
+  private static final MissingKeyRecorder instance = new MissingKeyRecorder(new File(System.getProperty("java.io.tmpdir"), "idnadrev_missing_keys.properties"));
+
+  public static MissingKeyRecorder getInstance() {
+    return instance;
+  }
+
+  protected final ConcurrentHashMap<String, Set<String>> missingKeys = new ConcurrentHashMap<>();
+  protected final Set<String> writtenKeys = ConcurrentHashMap.newKeySet();
+  protected final ConcurrentLinkedQueue<String> pending = new ConcurrentLinkedQueue<>();
+  protected final AtomicBoolean flushScheduled = new AtomicBoolean();
+  protected final ScheduledExecutorService flusher;
+  protected final File missingKeyFile;
+  protected long flushDelay = 250;
+
+  MissingKeyRecorder(File file) {
+    this.missingKeyFile = createMissingKeyFile(file);
+    flusher = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()//
+      .setDaemon(true)//
+      .setNameFormat("missing-key-flusher-%d")//
+      .build());
+    Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "missing-key-flusher-shutdown"));
+  }
+
+  private static File createMissingKeyFile(File missing) {
+    try {
+      if (missing.exists()) {
+        missing.delete();
+      }
+      missing.createNewFile();
+      return missing;
+    } catch (IOException e) {
+      log.error("Could not create tempfile {} for missing properties", missing, e);
+      return null;
+    }
+  }
+
+  /**
+   * Records the key as missing in the given bundle, never blocks on I/O.
+   */
+  public void record(String bundle, String key) {
+    missingKeys.computeIfAbsent(bundle, b -> ConcurrentHashMap.newKeySet()).add(key);
+    if (missingKeyFile != null && writtenKeys.add(key)) {
+      pending.add(toPropertyLine(key));
+      if (flushScheduled.compareAndSet(false, true)) {
+        flusher.schedule(this::flush, flushDelay, TimeUnit.MILLISECONDS);
+      }
+    }
+  }
+
+  protected String toPropertyLine(String key) {
+    StringBuilder builder = new StringBuilder(key);
+    int indexOf = key.lastIndexOf(".");
+    if (indexOf > 0) {
+      builder.append(" = ").append(key.substring(indexOf + 1));
+    } else {
+      builder.append(" = ").append(key);
+    }
+    return builder.append("\n").toString();
+  }
+
+  /**
+   * Writes all pending keys to the missing key file.
+   */
+  public synchronized void flush() {
+    flushScheduled.set(false);
+    if (missingKeyFile == null || pending.isEmpty()) {
+      return;
+    }
+    try (FileWriter writer = new FileWriter(missingKeyFile, true)) {
+      for (String line = pending.poll(); line != null; line = pending.poll()) {
+        writer.append(line);
+      }
+    } catch (IOException e) {
+      log.error("Could not write missing keys to {}", missingKeyFile, e);
+    }
+  }
+
+  /**
+   * @return the file containing all missing keys, flushed before returning.
+   */
+  public File getMissingKeyFile() {
+    flush();
+    return missingKeyFile;
+  }
+
+  /**
+   * @return all missing keys of the given bundle
+   */
+  public Set<String> getMissingKeys(String bundle) {
+    Set<String> keys = missingKeys.get(bundle);
+    return keys == null ? Collections.emptySet() : new TreeSet<>(keys);
+  }
+
+  /**
+   * @return all missing keys grouped by bundle
+   */
+  public Map<String, Set<String>> getMissingKeys() {
+    TreeMap<String, Set<String>> retval = new TreeMap<>();
+    missingKeys.keySet().forEach(bundle -> retval.put(bundle, getMissingKeys(bundle)));
+    return retval;
+  }
+
+  /**
+   * Writes the missing keys of every bundle in properties format, each bundle preceded by a comment with its name.
+   */
+  public void dump(Writer writer) throws IOException {
+    for (Map.Entry<String, Set<String>> entry : getMissingKeys().entrySet()) {
+      writer.append("# ").append(entry.getKey()).append("\n");
+      for (String key : entry.getValue()) {
+        writer.append(toPropertyLine(key));
+      }
+    }
+    writer.flush();
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright [2014] [Christian Loehnert, krampenschiesser@gmail.com]
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.ks.standbein.i18n;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Binary list of the package prefixes whose bundles were used in the last run.
+ * Only says what to resolve ahead of time, the bundles themselves are always read from the classpath.
+ */
+class PackageIndex {
+  private static final Logger log = LoggerFactory.getLogger(PackageIndex.class);
+  private static final int MAGIC = 0x53424931;
+
+  private final File file;
+
+  PackageIndex(File file) {
+    this.file = file;
+  }
+
+  Set<String> read() {
+    if (!file.exists()) {
+      return Collections.emptySet();
+    }
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+      if (in.readInt() != MAGIC) {
+        log.warn("Ignoring invalid package index {}", file);
+        return Collections.emptySet();
+      }
+      int size = in.readInt();
+      TreeSet<String> retval = new TreeSet<>();
+      for (int i = 0; i < size; i++) {
+        retval.add(in.readUTF());
+      }
+      return retval;
+    } catch (IOException e) {
+      log.warn("Could not read package index {}", file, e);
+      return Collections.emptySet();
+    }
+  }
+
+  void write(Collection<String> packages) {
+    TreeSet<String> sorted = new TreeSet<>(packages);
+    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+      out.writeInt(MAGIC);
+      out.writeInt(sorted.size());
+      for (String packagePrefix : sorted) {
+        out.writeUTF(packagePrefix);
+      }
+    } catch (IOException e) {
+      log.error("Could not write package index {}", file, e);
+    }
+  }
+
+  File getFile() {
+    return file;
+  }
+}
@@ -19,152 +19,110 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
-import java.io.FileWriter;
-import java.io.IOException;
-import java.lang.reflect.Method;
-import java.net.URL;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Ignores ":" and "=" at the end of a string.
  * Also uses the UTF8Control
+ * Wraps exactly one (package) bundle, see {@link Localized#getBundle(Class)}
  */
 class ResourceBundleWrapper extends ResourceBundle {
 
   private static final Logger log = LoggerFactory.getLogger(ResourceBundleWrapper.class);
   private final ResourceBundle bundle;
   private final String path;
-  private final File missingKeyFile;
   private final ResourceBundle fallback;
   private final String bundleFileName;
   private final Locale locale;
+  private final Map<String, MessageTemplate> messages;
+  /**
+   * keys with ":" or "=" suffix and missing keys
+   */
+  private final ConcurrentHashMap<String, MessageTemplate> derived = new ConcurrentHashMap<>();
 
   public ResourceBundleWrapper(String bundleFileName, ResourceBundle bundle, ResourceBundle fallback, String path, Locale locale) {
     this.bundleFileName = bundleFileName;
     this.locale = locale;
     this.fallback = fallback == null ? bundle : fallback;
-    String tempDir = System.getProperty("java.io.tmpdir");
-    String pathname = tempDir + File.separator + "idnadrev_missing_keys.properties";
-    File missing = null;
-    try {
-      missing = new File(pathname);
-      if (missing.exists()) {
-        missing.delete();
-      }
-      missing.createNewFile();
-    } catch (IOException e) {
-      log.error("Could not create tempfile {} for missing properties", pathname, e);
-      missing = null;
-    }
-    this.missingKeyFile = missing;
     this.bundle = bundle;
     this.path = path;
+    this.messages = compile(bundle, this.fallback);
+  }
+
+  /**
+   * Merges fallback and bundle into one flat map, the bundle wins.
+   */
+  private static Map<String, MessageTemplate> compile(ResourceBundle bundle, ResourceBundle fallback) {
+    HashMap<String, MessageTemplate> retval = new HashMap<>();
+    for (ResourceBundle current : Arrays.asList(fallback, bundle)) {
+      for (String key : current.keySet()) {
+        Object value = current.getObject(key);
+        if (value instanceof String) {
+          retval.put(key, MessageTemplate.compile((String) value));
+        }
+      }
+    }
+    return retval;
   }
 
   @Override
   public boolean containsKey(String key) {
-    if (key.endsWith(":")) {
-      key = key.substring(0, key.length() - 1);
-    } else if (key.endsWith("=")) {
-      key = key.substring(0, key.length() - 1);
-    }
-    boolean isContained = getBundle().containsKey(key);
-    if (!isContained && hasFallback()) {
-      isContained = getFallback().containsKey(key);
-    }
-    if (!isContained) {
+    if (!messages.containsKey(stripSuffix(key))) {
       log.warn("Key \"{}\" not found in properties: {}", key, path);
-      return true;
     }
     return true;
   }
 
+  /**
+   * @return true if the key (without ":" or "=" suffix) has a translation
+   */
+  boolean isTranslated(String key) {
+    return messages.containsKey(stripSuffix(key));
+  }
+
   @Override
   public Set<String> keySet() {
-    HashSet<String> retval = new HashSet<>();
-    retval.addAll(getBundle().keySet());
-    if (hasFallback()) {
-      retval.addAll(getFallback().keySet());
-    }
-    return retval;
+    return new HashSet<>(messages.keySet());
   }
 
   @Override
   public Enumeration<String> getKeys() {
-    Enumeration<String> keys = getBundle().getKeys();
-    if (hasFallback()) {
-      Enumeration<String> fallbackKeys = getFallback().getKeys();
-      return new Enumeration<String>() {
-        @Override
-        public boolean hasMoreElements() {
-          if (!keys.hasMoreElements()) {
-            return fallbackKeys.hasMoreElements();
-          }
-          return keys.hasMoreElements();
-        }
-
-        @Override
-        public String nextElement() {
-          if (!keys.hasMoreElements()) {
-            return fallbackKeys.nextElement();
-          }
-          return keys.nextElement();
-        }
-      };
-    } else {
-      return keys;
-    }
+    return Collections.enumeration(messages.keySet());
   }
 
   @Override
   protected Object handleGetObject(String key) {
-    String ending = null;
-    if (key.endsWith(":")) {
-      ending = ":";
-    } else if (key.endsWith("=")) {
-      ending = "=";
-    }
-    if (ending != null) {
-      key = key.substring(0, key.length() - ending.length());
-    }
-    try {
-      Method method = ResourceBundle.class.getDeclaredMethod("handleGetObject", String.class);
-      method.setAccessible(true);
-      Object retval = method.invoke(getBundle(), key);
-      if (retval == null && hasFallback()) {
-        retval = method.invoke(getFallback(), key);
-      }
-      if ((ending != null) && (retval instanceof String)) {
-        retval = retval + ending;
-      }
-      if (retval == null) {
-        log.warn("Key \"{}\" not found in properties:{}", key, path);
+    return getTemplate(key).getText();
+  }
 
-        appendToMissingKeyFile(key);
-        return "?" + key + "?";
-      }
-      return retval;
-    } catch (Exception e) {
-      log.error("Could not invoke delegate method.", e);
+  /**
+   * @return the compiled translation, "?key?" if it is missing
+   */
+  public MessageTemplate getTemplate(String key) {
+    MessageTemplate template = messages.get(key);
+    if (template == null) {
+      template = derived.computeIfAbsent(key, this::deriveTemplate);
     }
-    return null;
+    return template;
   }
 
-  protected void appendToMissingKeyFile(String key) throws IOException {
-    if (missingKeyFile == null) {
-      return;
+  private MessageTemplate deriveTemplate(String key) {
+    String stripped = stripSuffix(key);
+    MessageTemplate template = messages.get(stripped);
+    if (template != null) {
+      return template.withSuffix(key.substring(stripped.length()));
     }
-    try (FileWriter writer = new FileWriter(missingKeyFile, true)) {
-      StringBuilder builder = new StringBuilder(key);
-      int indexOf = key.lastIndexOf(".");
-      if (indexOf > 0) {
-        builder.append(" = ").append(key.substring(indexOf + 1));
-      } else {
-        builder.append(" = ").append(key);
-      }
-      builder.append("\n");
-      writer.append(builder.toString());
+    log.warn("Key \"{}\" not found in properties:{}", stripped, path);
+    MissingKeyRecorder.getInstance().record(path, stripped);
+    return MessageTemplate.compile("?" + stripped + "?");
+  }
+
+  private static String stripSuffix(String key) {
+    if (key.endsWith(":") || key.endsWith("=")) {
+      return key.substring(0, key.length() - 1);
     }
+    return key;
   }
 
   @Override
@@ -188,7 +146,14 @@ class ResourceBundleWrapper extends ResourceBundle {
   }
 
   public File getMissingKeyFile() {
-    return missingKeyFile;
+    return MissingKeyRecorder.getInstance().getMissingKeyFile();
+  }
+
+  /**
+   * @return the missing keys recorded for this bundle
+   */
+  public Set<String> getMissingKeys() {
+    return MissingKeyRecorder.getInstance().getMissingKeys(path);
   }
 
   protected boolean hasFallback() {
@@ -200,42 +165,8 @@ class ResourceBundleWrapper extends ResourceBundle {
   }
 
   protected ResourceBundle getBundle() {
-    String baseBundleName = bundle.getBaseBundleName();
-    StackTraceElement[] stackTrace = Thread.currentThread().getStackTrace();
-    boolean isNext = false;
-
-    String callerClassName = null;
-    for (StackTraceElement stackTraceElement : stackTrace) {
-      String className = stackTraceElement.getClassName();
-      if (className.equals(Thread.class.getName()) || className.equals(ResourceBundle.class.getName()) || className.equals(getClass().getName()) || className.equals(Localized.class.getName())) {
-        continue;
-      } else if (className.contains("$")) {
-        continue;
-      } else {
-        callerClassName = className;
-        break;
-      }
-    }
-    log.trace("Found caller class {}, basename={}", callerClassName, baseBundleName);
-
-    String substring = callerClassName.substring(0, callerClassName.lastIndexOf('.') + 1);
-
-
-    UTF8Control control = new UTF8Control();
-    String baseName = substring + bundleFileName;
-    URL resource = getClass().getClassLoader().getResource(control.getResourceName(baseName, locale));
-    if (resource == null) {
-      resource = getClass().getClassLoader().getResource(control.getResourceName(baseName, control.getFallbackLocale(baseName, locale)));
-    }
-
-    if (resource != null) {
-      ResourceBundle localBundle = ResourceBundle.getBundle(baseName, locale, control);
-      log.trace("Found local bundle {}", baseName);
-      if (localBundle != null) {
-        return localBundle;
-      }
-    }
-    return this.bundle;
+    return bundle;
   }
 
+
 }
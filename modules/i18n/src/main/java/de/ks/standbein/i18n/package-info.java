@@ -24,6 +24,8 @@
  *
  * With changing the language the event {@link de.ks.standbein.i18n.event.LanguageChangedEvent }
  * is thrown in order to notify possible listeners (eg. labels)
+ * Texts obtained via {@link de.ks.standbein.i18n.Localized#getLocalizedText(java.lang.Class, java.lang.String)}
+ * are updated in one pass in the JavaFX thread before the event is posted.
  *
  * Property files must be in the following package:
  * "de.ks.i18n"
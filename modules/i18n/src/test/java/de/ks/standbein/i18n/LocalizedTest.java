@@ -25,10 +25,14 @@ import de.ks.eventsystem.bus.EventBus;
 import de.ks.standbein.i18n.event.LanguageChangedEvent;
 import de.ks.standbein.i18n.nobundle.NoBundleClass;
 import de.ks.standbein.i18n.other.OtherClass;
+import javafx.beans.property.SimpleStringProperty;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import java.io.File;
+import java.io.StringWriter;
 import java.util.List;
 import java.util.Locale;
 import java.util.ResourceBundle;
@@ -42,6 +46,8 @@ public class LocalizedTest {
   private Localized localized;
   private EventBus eventBus;
   private Injector injector;
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
 
   @Before
   public void setUp() throws Exception {
@@ -115,6 +121,20 @@ public class LocalizedTest {
     assertEquals("doesNotExistNoDots = doesNotExistNoDots", property);
   }
 
+  @Test
+  public void testMissingKeysPerBundle() throws Exception {
+    localized.get("missing.key.recorded");
+    localized.get("missing.key.recorded:");
+
+    assertTrue(localized.getBundle().getMissingKeys().contains("missing.key.recorded"));
+    assertFalse(localized.getBundle().getMissingKeys().contains("missing.key.recorded:"));
+
+    StringWriter writer = new StringWriter();
+    MissingKeyRecorder.getInstance().dump(writer);
+    assertTrue(writer.toString().contains("# de.ks.standbein.i18n.Translation_en.properties\n"));
+    assertTrue(writer.toString().contains("missing.key.recorded = recorded\n"));
+  }
+
   @Test
   public void testNullParameter() throws Exception {
     localized.get("doesNot.Exist.Dots", (Object[]) null);
@@ -142,6 +162,67 @@ public class LocalizedTest {
     assertEquals("?subPackageString?", new NoBundleClass(localized).getString());
   }
 
+  @Test
+  public void testPackageBundleResolvedOnce() throws Exception {
+    ResourceBundle bundle = localized.getBundle(OtherClass.class);
+    assertSame(bundle, localized.getBundle(OtherClass.class));
+    assertSame(localized.getBundle(), localized.getBundle(NoBundleClass.class));
+    assertEquals("Hello SubPackage", localized.get(OtherClass.class, "subPackageString"));
+    assertEquals("Hello world!", localized.get(OtherClass.class, "hello"));
+
+    localized.changeLocale(Locale.GERMAN);
+    assertNotSame(bundle, localized.getBundle(OtherClass.class));
+    assertEquals("Hello SubPackage", localized.get(OtherClass.class, "subPackageString"));
+    assertEquals("Hallo Welt!", localized.get(OtherClass.class, "hello"));
+  }
+
+  @Test
+  public void testLocalizedTextFollowsLocale() throws Exception {
+    LocalizedText text = localized.getLocalizedText(null, "hello");
+    assertSame(text, localized.getLocalizedText(null, "hello"));
+    assertEquals("Hello SubPackage", localized.getLocalizedText(OtherClass.class, "subPackageString").getText());
+
+    SimpleStringProperty label = new SimpleStringProperty(text.getText());
+    SimpleStringProperty changedLabel = new SimpleStringProperty(text.getText());
+    text.follow(label);
+    text.follow(changedLabel);
+    changedLabel.set("changed");
+
+    localized.changeLocale(Locale.GERMAN);
+    assertEquals("Hallo Welt!", text.getText());
+    assertEquals("Hallo Welt!", text.textProperty().get());
+    assertEquals("Hallo Welt!", label.get());
+    assertEquals("changed", changedLabel.get());
+  }
+
+  @Test
+  public void testMissingLocalizedTextNotShared() throws Exception {
+    LocalizedText missing = localized.getLocalizedText(null, "missing.text.key");
+    assertEquals("?missing.text.key?", missing.getText());
+    assertNotSame(missing, localized.getLocalizedText(null, "missing.text.key"));
+    assertFalse(localized.texts.containsKey("*:missing.text.key"));
+  }
+
+  @Test
+  public void testPreloadFromPackageIndex() throws Exception {
+    PackageIndex index = new PackageIndex(folder.newFile());
+    localized.packageIndex = index;
+    localized.getBundle(OtherClass.class);
+    localized.getBundle(NoBundleClass.class);
+    localized.writePackageIndex();
+
+    Localized other = new Localized(Locale.ENGLISH, "Translation", "de.ks.standbein.i18n.Translation");
+    other.packageIndex = index;
+    other.preload(Runnable::run).join();
+    assertEquals(2, other.packageBundles.size());
+    assertTrue(other.packageBundles.containsKey("de.ks.standbein.i18n.other."));
+    assertSame(other.packageBundles.get("de.ks.standbein.i18n.other."), other.getBundle(OtherClass.class));
+
+    other.writePackageIndex();
+    assertEquals("preloaded but unused packages are dropped", 1, index.read().size());
+    assertSame(other.getBundle(), other.getBundle(NoBundleClass.class));
+  }
+
   @Test
   public void testRootSubPackageKey() throws Exception {
     assertEquals("?subPackageString?", localized.get("subPackageString"));
@@ -0,0 +1,44 @@
+/*
+ * Copyright [2014] [Christian Loehnert, krampenschiesser@gmail.com]
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.ks.standbein.i18n;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class MessageTemplateTest {
+  @Test
+  public void testFormat() throws Exception {
+    MessageTemplate template = MessageTemplate.compile("Hello {1}{0} {2}");
+    assertEquals("Hello Sauerland!!! {2}", template.format("!!!", "Sauerland"));
+    assertEquals("Hello null!!! {2}", template.format("!!!", null));
+    assertEquals("Hello {1}{0} {2}", template.format((Object[]) null));
+    assertEquals("Hello {1}{0} {2}", template.format());
+  }
+
+  @Test
+  public void testNoPlaceholders() throws Exception {
+    MessageTemplate template = MessageTemplate.compile("{a} {} {01} {");
+    assertEquals("{a} {} {01} {", template.format("x", "y"));
+    assertSame(template.getText(), template.format("x"));
+  }
+
+  @Test
+  public void testSuffix() throws Exception {
+    MessageTemplate template = MessageTemplate.compile("Hello {0}").withSuffix(":");
+    assertEquals("Hello {0}:", template.getText());
+    assertEquals("Hello world:", template.format("world"));
+  }
+}
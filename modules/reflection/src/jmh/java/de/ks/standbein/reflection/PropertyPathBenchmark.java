@@ -0,0 +1,93 @@
+/*
+ * Copyright [2014] [Christian Loehnert, krampenschiesser@gmail.com]
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.ks.standbein.reflection;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of recording property paths and of the hierarchy lookups of {@link ReflectionUtil}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropertyPathBenchmark {
+  private final String suffix = "Name";
+
+  @Benchmark
+  public PropertyPath recordStateless() {
+    return PropertyPath.ofTypeSafe(Model.class, m -> m.getChild().getName());
+  }
+
+  @Benchmark
+  public PropertyPath recordCapturing() {
+    return PropertyPath.ofTypeSafe(Model.class, m -> suffix.isEmpty() ? null : m.getChild().getName());
+  }
+
+  @Benchmark
+  public String property() {
+    return PropertyPath.property(Model.class, Model::getCount);
+  }
+
+  @Benchmark
+  public List<Method> getAllMethods() {
+    return ReflectionUtil.getAllMethods(Model.class, m -> m.getName().startsWith("get"));
+  }
+
+  @Benchmark
+  public Field getField() {
+    return ReflectionUtil.getField(Model.class, "count");
+  }
+
+  public static class Base {
+    protected int count;
+
+    public int getCount() {
+      return count;
+    }
+
+    public void setCount(int count) {
+      this.count = count;
+    }
+  }
+
+  public static class Model extends Base {
+    protected String name;
+    protected Model child;
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+
+    public Model getChild() {
+      return child;
+    }
+
+    public void setChild(Model child) {
+      this.child = child;
+    }
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright [2014] [Christian Loehnert, krampenschiesser@gmail.com]
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.ks.standbein.reflection;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Method handle chain compiled once from the recorded methods of a {@link PropertyPath}.
+ */
+class PathAccessor {
+  private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+  private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+  /**
+   * One handle per recorded method, null for methods taking parameters.
+   */
+  private final MethodHandle[] getters;
+  /**
+   * Amount of getters to follow before calling the setter.
+   */
+  private final int setterDepth;
+  private final MethodHandle setter;
+
+  PathAccessor(List<Method> methodPath) {
+    getters = new MethodHandle[methodPath.size()];
+    for (int i = 0; i < getters.length; i++) {
+      Method method = methodPath.get(i);
+      if (method.getParameterTypes().length == 0) {
+        getters[i] = unreflect(method).asType(GETTER_TYPE);
+      }
+    }
+    Method lastMethod = methodPath.get(methodPath.size() - 1);
+    setterDepth = methodPath.indexOf(lastMethod);
+    Method setterMethod = resolveSetter(lastMethod);
+    setter = setterMethod == null ? null : unreflect(setterMethod).asType(SETTER_TYPE);
+  }
+
+  private static Method resolveSetter(Method lastMethod) {
+    String methodName = lastMethod.getName().toLowerCase(Locale.ROOT);
+
+    boolean isBooleanGetter = methodName.startsWith("is");
+    boolean isSimpleGetter = methodName.startsWith("get");
+
+    if (lastMethod.getParameterTypes().length == 0 && isBooleanGetter || isSimpleGetter) {
+      int index = isBooleanGetter ? 2 : 3;
+      Class<?> declaringClass = lastMethod.getDeclaringClass();
+      Optional<Method> methodOptional = Arrays.asList(declaringClass.getDeclaredMethods()).stream()//
+        .filter((m) -> m.getName().startsWith("set") && m.getName().toLowerCase(Locale.ROOT).endsWith(methodName.substring(index)))//
+        .findFirst();
+      return methodOptional.orElse(null);
+    } else if (lastMethod.getParameterTypes().length == 1) {
+      return lastMethod;
+    } else {
+      return null;
+    }
+  }
+
+  private static MethodHandle unreflect(Method method) {
+    try {
+      method.setAccessible(true);
+      return MethodHandles.lookup().unreflect(method);
+    } catch (IllegalAccessException | RuntimeException e) {
+      throw new IllegalArgumentException("Could not access " + method, e);
+    }
+  }
+
+  boolean hasSetter() {
+    return setter != null;
+  }
+
+  /**
+   * @return the value at the end of the path, null if an element on the way is null
+   */
+  Object get(Object source) throws Exception {
+    Object instance = source;
+    for (MethodHandle getter : getters) {
+      if (instance == null) {
+        return null;
+      }
+      if (getter == null) {
+        throw new IllegalArgumentException("Path contains a method with parameters");
+      }
+      instance = invoke(getter, instance);
+    }
+    return instance;
+  }
+
+  void set(Object source, Object value) throws Exception {
+    Object instance = source;
+    for (int i = 0; i < setterDepth; i++) {
+      if (getters[i] == null) {
+        throw new IllegalArgumentException("Path contains a method with parameters");
+      }
+      instance = invoke(getters[i], instance);
+    }
+    if (instance == null) {
+      throw new NullPathException("Can't set value, path ends in null");
+    }
+    try {
+      setter.invokeExact(instance, value);
+    } catch (Exception | Error e) {
+      throw e;
+    } catch (Throwable t) {
+      throw new UndeclaredThrowableException(t);
+    }
+  }
+
+  private static Object invoke(MethodHandle getter, Object instance) throws Exception {
+    try {
+      return getter.invokeExact(instance);
+    } catch (Exception | Error e) {
+      throw e;
+    } catch (Throwable t) {
+      throw new UndeclaredThrowableException(t);
+    }
+  }
+}
@@ -28,21 +28,36 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
 public class PropertyPath {
   private static final ObjenesisStd objenesis = new ObjenesisStd();
+  private static final ClassValue<Class<?>> proxyClasses = new ClassValue<Class<?>>() {
+    @Override
+    protected Class<?> computeValue(Class<?> type) {
+      ProxyFactory factory = new ProxyFactory();
+      factory.setSuperclass(type);
+      return factory.createClass();
+    }
+  };
+  /**
+   * Paths recorded by stateless lambdas, by lambda class and root class. Null for lambdas capturing state.
+   */
+  private static final ClassValue<ConcurrentHashMap<Class<?>, PropertyPath>> recordedPaths = new ClassValue<ConcurrentHashMap<Class<?>, PropertyPath>>() {
+    @Override
+    protected ConcurrentHashMap<Class<?>, PropertyPath> computeValue(Class<?> type) {
+      return isStateless(type) ? new ConcurrentHashMap<>() : null;
+    }
+  };
 
   public static <T> String methodName(Class<T> clazz, Consumer<T> consumer) {
-    PropertyPath path = new PropertyPath(clazz);
-    consumer.accept(path.build());
-    return path.getLastMethodName();
+    return of(clazz, consumer).getLastMethodName();
   }
 
   public static <T> String property(Class<T> clazz, Consumer<T> consumer) {
-    PropertyPath path = new PropertyPath(clazz);
-    consumer.accept(path.build());
+    PropertyPath path = of(clazz, consumer);
     if (path.getPropertyPath().isEmpty()) {
       String methodName = path.getLastMethodName();
       if (methodName.startsWith("get")) {
@@ -66,15 +81,39 @@ public class PropertyPath {
   }
 
   public static <T> PropertyPath of(Class<T> clazz, Consumer<T> consumer) {
-    PropertyPath path = new PropertyPath(clazz);
-    consumer.accept(path.build());
-    return path;
+    return record(clazz, consumer, path -> consumer.accept(path.build()));
   }
 
   public static <T> PropertyPath ofTypeSafe(Class<T> clazz, Function<T, ?> function) {
-    PropertyPath path = new PropertyPath(clazz);
-    function.apply(path.build());
-    return path;
+    return record(clazz, function, path -> function.apply(path.build()));
+  }
+
+  /**
+   * Lambdas without captured state always record the same path, so the recording is only done once per lambda class.
+   */
+  private static PropertyPath record(Class<?> clazz, Object lambda, Consumer<PropertyPath> recorder) {
+    ConcurrentHashMap<Class<?>, PropertyPath> paths = recordedPaths.get(lambda.getClass());
+    if (paths == null) {
+      PropertyPath path = new PropertyPath(clazz);
+      recorder.accept(path);
+      return path;
+    }
+    PropertyPath recorded = paths.get(clazz);
+    if (recorded == null) {
+      recorded = new PropertyPath(clazz);
+      recorder.accept(recorded);
+      paths.putIfAbsent(clazz, recorded);
+    }
+    return recorded.copy();
+  }
+
+  private static boolean isStateless(Class<?> lambdaClass) {
+    for (Field field : lambdaClass.getDeclaredFields()) {
+      if (!Modifier.isStatic(field.getModifiers())) {
+        return false;
+      }
+    }
+    return true;
   }
 
   public static <T> PropertyPath of(Class<T> clazz) {
@@ -92,11 +131,26 @@ public class PropertyPath {
   protected Class<?>[] parameterTypes;
   protected Class<?> returnType;
   protected Field field;
+  private volatile PathAccessor accessor;
 
   public PropertyPath(Class<?> root) {
     this.root = root;
   }
 
+  protected PropertyPath copy() {
+    PropertyPath copy = new PropertyPath(root);
+    copy.methodPath.addAll(methodPath);
+    copy.stringPath.addAll(stringPath);
+    copy.fieldPath.addAll(fieldPath);
+    copy.setter = setter;
+    copy.getter = getter;
+    copy.parameterTypes = parameterTypes;
+    copy.returnType = returnType;
+    copy.field = field;
+    copy.accessor = accessor;
+    return copy;
+  }
+
   @SuppressWarnings("unchecked")
   public <T> T build() {
     stringPath.clear();
@@ -106,6 +160,7 @@ public class PropertyPath {
     parameterTypes = null;
     returnType = null;
     field = null;
+    accessor = null;
 
     return (T) callBack(root);
   }
@@ -115,11 +170,7 @@ public class PropertyPath {
     if (Modifier.isFinal(clazz.getModifiers())) {
       return null;
     }
-    ProxyFactory factory = new ProxyFactory();
-    factory.setSuperclass(clazz);
-    Class proxy = factory.createClass();
-
-    Object retval = objenesis.newInstance(proxy);
+    Object retval = objenesis.newInstance(proxyClasses.get(clazz));
     ((Proxy) retval).setHandler(new MethodHandler() {
       @Override
       public Object invoke(Object self, Method thisMethod, Method proceed, Object[] args) throws Throwable {
@@ -135,6 +186,7 @@ public class PropertyPath {
         }
         stringPath.add(methodName);
         methodPath.add(thisMethod);
+        accessor = null;
 
         setter = isSetter(thisMethod);
         getter = isGetter(thisMethod);
@@ -209,43 +261,16 @@ public class PropertyPath {
   }
 
   public void setValue(Object source, Object value) {
-    Object instance = source;
-    Method lastMethod = methodPath.get(methodPath.size() - 1);
-    for (Method method : methodPath) {
-      if (method.equals(lastMethod)) {
-        break;
-      }
-      try {
-        instance = method.invoke(instance);
-      } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-        log.error("Could not follow path {}: ", this, e);
-        return;
-      }
+    PathAccessor accessor = getAccessor();
+    if (!accessor.hasSetter()) {
+      log.warn("Could not find any setter for getter {}", getLastMethod());
+      return;
     }
     try {
-      String methodName = lastMethod.getName().toLowerCase(Locale.ROOT);
-
-      boolean isBooleanGetter = methodName.startsWith("is");
-      boolean isSimpleGetter = methodName.startsWith("get");
-
-      if (lastMethod.getParameterTypes().length == 0 && isBooleanGetter || isSimpleGetter) {
-        int index = isBooleanGetter ? 2 : 3;
-        Class<?> declaringClass = lastMethod.getDeclaringClass();
-        Optional<Method> methodOptional = Arrays.asList(declaringClass.getDeclaredMethods()).stream()//
-          .filter((m) -> m.getName().startsWith("set") && m.getName().toLowerCase(Locale.ROOT).endsWith(methodName.substring(index)))//
-          .findFirst();
-        if (methodOptional.isPresent()) {
-          Method method = methodOptional.get();
-          method.setAccessible(true);
-          method.invoke(instance, value);
-        } else {
-          log.warn("Could not find any setter for getter {}", lastMethod);
-        }
-      } else {
-        lastMethod.setAccessible(true);
-        lastMethod.invoke(instance, value);
-      }
-    } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
+      accessor.set(source, value);
+    } catch (NullPathException e) {
+      throw e;
+    } catch (Exception e) {
       log.error("Could not invoke setter on path {}: ", this, e);
     }
   }
@@ -256,20 +281,23 @@ public class PropertyPath {
       log.error("Declared path [{}]is no getter", this);
       return null;
     }
-    Object instance = source;
-    for (Method method : methodPath) {
-      if (instance == null) {
-        return null;
-      }
-      try {
-        method.setAccessible(true);
-        instance = method.invoke(instance);
-      } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-        log.error("Could not follow path {}: ", this, e);
-        return null;
-      }
+    try {
+      return (U) getAccessor().get(source);
+    } catch (Exception e) {
+      log.error("Could not follow path {}: ", this, e);
+      return null;
     }
-    return (U) instance;
+  }
+
+  /**
+   * The recorded methods are compiled once into a method handle chain, recording again discards it.
+   */
+  private PathAccessor getAccessor() {
+    PathAccessor retval = accessor;
+    if (retval == null) {
+      retval = accessor = new PathAccessor(methodPath);
+    }
+    return retval;
   }
 
   public void walk(Object source) {
@@ -328,14 +356,7 @@ public class PropertyPath {
     } else if (methodName.startsWith("is")) {
       methodName = methodName.substring(2);
     }
-    methodName = methodName.toLowerCase(Locale.ROOT);
-    List<Field> fieldsRecursive = ReflectionUtil.getAllFields(method.getDeclaringClass());
-    for (Field field : fieldsRecursive) {
-      if (field.getName().toLowerCase(Locale.ROOT).equals(methodName)) {
-        return field;
-      }
-    }
-    return null;
+    return ReflectionUtil.getFieldIgnoreCase(method.getDeclaringClass(), methodName.toLowerCase(Locale.ROOT));
   }
 
   public String getStringFieldPath() {
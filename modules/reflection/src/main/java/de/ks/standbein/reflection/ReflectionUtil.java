@@ -35,6 +35,31 @@ import java.util.stream.Collectors;
 public class ReflectionUtil {
   private static final Logger log = LoggerFactory.getLogger(ReflectionUtil.class);
 
+  private static final ClassValue<Class<?>[]> hierarchies = new ClassValue<Class<?>[]>() {
+    @Override
+    protected Class<?>[] computeValue(Class<?> type) {
+      return computeClassHierarchy(type, false);
+    }
+  };
+  private static final ClassValue<Class<?>[]> hierarchiesWithInterfaces = new ClassValue<Class<?>[]>() {
+    @Override
+    protected Class<?>[] computeValue(Class<?> type) {
+      return computeClassHierarchy(type, true);
+    }
+  };
+  private static final ClassValue<MethodIndex> methodIndices = new ClassValue<MethodIndex>() {
+    @Override
+    protected MethodIndex computeValue(Class<?> type) {
+      return new MethodIndex(type);
+    }
+  };
+  private static final ClassValue<FieldIndex> fieldIndices = new ClassValue<FieldIndex>() {
+    @Override
+    protected FieldIndex computeValue(Class<?> type) {
+      return new FieldIndex(type);
+    }
+  };
+
   /**
    * Returns a List of all methods of this class and its supertypes without the methods of Object.
    * The list is ordered by hierarchy level (clazz first, then clazz.getSuperClass etc.)
@@ -47,55 +72,31 @@ public class ReflectionUtil {
   @SafeVarargs
   @SuppressWarnings("unchecked")
   public static List<Method> getAllMethods(Class<?> clazz, Predicate<Method>... predicates) {
-    ArrayList<Method> methods = new ArrayList<>(100);
-    Map<Pair<String, List<Class<?>>>, Method> collected = new HashMap<>();
-
-    List<Class<?>> hierarchy = getClassHierarchy(clazz, true);
-    for (Class<?> current : hierarchy) {
-      List<Method> declaredMethods = Arrays.asList(current.getDeclaredMethods());
-      Collections.sort(declaredMethods, getMethodComparator());
-
-      for (Method declaredMethod : declaredMethods) {
-        String methodName = declaredMethod.getName();
-        Pair<String, List<Class<?>>> key = new Pair<>(methodName, Arrays.asList(declaredMethod.getParameterTypes()));
-
-        if (!collected.containsKey(key)) {
-          collected.put(new Pair<>(methodName, Arrays.asList(declaredMethod.getParameterTypes())), declaredMethod);
-          methods.add(declaredMethod);
-        }
-      }
-    }
-
-    Predicate<Method> combinedPredicate = Predicates.combineAnd(predicates);
-    if (combinedPredicate != null) {
-      return methods.stream().distinct().filter(combinedPredicate).collect(Collectors.toList());
-    } else {
-      return methods.stream().distinct().collect(Collectors.toList());
-    }
+    return filter(methodIndices.get(clazz).methods, Predicates.combineAnd(predicates));
   }
 
   @SafeVarargs
   @SuppressWarnings("unchecked")
   public static List<Field> getAllFields(Class<?> clazz, Predicate<Field>... predicates) {
-    ArrayList<Field> fields = new ArrayList<>(100);
-
-    List<Class<?>> hierarchy = getClassHierarchy(clazz, false);
-    Collections.reverse(hierarchy);
-    for (Class<?> current : hierarchy) {
-      List<Field> declaredFields = Arrays.asList(current.getDeclaredFields());
-      Collections.sort(declaredFields, getFieldComparator());
-      fields.addAll(declaredFields);
-    }
+    return filter(fieldIndices.get(clazz).fields, Predicates.combineAnd(predicates));
+  }
 
-    Predicate<Field> combinedPredicate = Predicates.combineAnd(predicates);
-    if (combinedPredicate != null) {
-      return fields.stream().filter(combinedPredicate).collect(Collectors.toList());
-    } else {
-      return fields;
+  private static <T> List<T> filter(T[] members, Predicate<T> predicate) {
+    ArrayList<T> retval = new ArrayList<>(members.length);
+    for (T member : members) {
+      if (predicate == null || predicate.test(member)) {
+        retval.add(member);
+      }
     }
+    return retval;
   }
 
   public static List<Class<?>> getClassHierarchy(Class<?> clazz, boolean includeInterfaces) {
+    Class<?>[] hierarchy = includeInterfaces ? hierarchiesWithInterfaces.get(clazz) : hierarchies.get(clazz);
+    return new ArrayList<>(Arrays.asList(hierarchy));
+  }
+
+  private static Class<?>[] computeClassHierarchy(Class<?> clazz, boolean includeInterfaces) {
     Predicate<Class<?>> filter = new Predicate<Class<?>>() {
       @Override
       public boolean test(Class<?> clazz) {
@@ -113,24 +114,21 @@ public class ReflectionUtil {
     } catch (NullPointerException e) {
       e.printStackTrace();
     }
-    return classes;
+    return classes.toArray(new Class<?>[classes.size()]);
   }
 
   public static Method getMethod(Class<?> clazz, String methodName) {
-    try {
-      Method method = clazz.getDeclaredMethod(methodName);
+    MethodIndex index = methodIndices.get(clazz);
+    Method method = index.declaredWithoutParameters.get(methodName);
+    if (method == null) {
+      method = index.byName.get(methodName);
+    }
+    if (method != null) {
       method.setAccessible(true);
       return method;
-    } catch (NoSuchMethodException e) {
-      List<Method> allMethods = getAllMethods(clazz);
-      Optional<Method> method = allMethods.parallelStream().filter((Method curr) -> curr.getName().equals(methodName)).findFirst();
-      if (method.isPresent()) {
-        method.get().setAccessible(true);
-        return method.get();
-      } else {
-        log.error("Could not find method {}  in {}", methodName, clazz.getName());
-        throw new RuntimeException(e);
-      }
+    } else {
+      log.error("Could not find method {}  in {}", methodName, clazz.getName());
+      throw new RuntimeException(new NoSuchMethodException(clazz.getName() + "." + methodName + "()"));
     }
   }
 
@@ -213,11 +211,82 @@ public class ReflectionUtil {
   }
 
   public static Field getField(Class<?> clazz, String fieldName) {
-    List<Field> allFields = getAllFields(clazz, f -> f.getName().equals(fieldName));
+    Field[] fields = fieldIndices.get(clazz).byName.get(fieldName);
     Field field = null;
-    if (allFields.size() == 1) {
-      field = allFields.get(0);
+    if (fields != null && fields.length == 1) {
+      field = fields[0];
     }
     return field;
   }
+
+  /**
+   * @param lowerCaseName field name in lower case
+   * @return the first field in the hierarchy matching the name ignoring case
+   */
+  static Field getFieldIgnoreCase(Class<?> clazz, String lowerCaseName) {
+    return fieldIndices.get(clazz).byLowerCaseName.get(lowerCaseName);
+  }
+
+  /**
+   * Methods of the hierarchy of one class, computed once per class.
+   */
+  private static final class MethodIndex {
+    final Method[] methods;
+    /**
+     * First method per name in hierarchy order.
+     */
+    final Map<String, Method> byName = new HashMap<>();
+    final Map<String, Method> declaredWithoutParameters = new HashMap<>();
+
+    MethodIndex(Class<?> clazz) {
+      ArrayList<Method> methods = new ArrayList<>(100);
+      Set<Pair<String, List<Class<?>>>> collected = new HashSet<>();
+
+      for (Class<?> current : hierarchiesWithInterfaces.get(clazz)) {
+        List<Method> declaredMethods = Arrays.asList(current.getDeclaredMethods());
+        Collections.sort(declaredMethods, getMethodComparator());
+
+        for (Method declaredMethod : declaredMethods) {
+          if (collected.add(new Pair<>(declaredMethod.getName(), Arrays.asList(declaredMethod.getParameterTypes())))) {
+            methods.add(declaredMethod);
+            byName.putIfAbsent(declaredMethod.getName(), declaredMethod);
+          }
+        }
+      }
+      for (Method method : clazz.getDeclaredMethods()) {
+        if (method.getParameterTypes().length == 0) {
+          declaredWithoutParameters.putIfAbsent(method.getName(), method);
+        }
+      }
+      this.methods = methods.toArray(new Method[methods.size()]);
+    }
+  }
+
+  /**
+   * Fields of the hierarchy of one class, computed once per class.
+   */
+  private static final class FieldIndex {
+    final Field[] fields;
+    final Map<String, Field[]> byName = new HashMap<>();
+    /**
+     * First field per lower case name in hierarchy order.
+     */
+    final Map<String, Field> byLowerCaseName = new HashMap<>();
+
+    FieldIndex(Class<?> clazz) {
+      ArrayList<Field> fields = new ArrayList<>(100);
+
+      List<Class<?>> hierarchy = getClassHierarchy(clazz, false);
+      Collections.reverse(hierarchy);
+      for (Class<?> current : hierarchy) {
+        List<Field> declaredFields = Arrays.asList(current.getDeclaredFields());
+        Collections.sort(declaredFields, getFieldComparator());
+        fields.addAll(declaredFields);
+      }
+      Map<String, List<Field>> grouped = fields.stream().collect(Collectors.groupingBy(Field::getName));
+      grouped.forEach((name, list) -> byName.put(name, list.toArray(new Field[list.size()])));
+      fields.forEach(f -> byLowerCaseName.putIfAbsent(f.getName().toLowerCase(Locale.ROOT), f));
+      this.fields = fields.toArray(new Field[fields.size()]);
+    }
+  }
 }
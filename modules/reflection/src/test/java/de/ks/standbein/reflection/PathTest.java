@@ -21,6 +21,8 @@ import org.junit.Test;
 import java.io.File;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -85,6 +87,16 @@ public class PathTest {
     assertEquals("hello", value);
   }
 
+  @Test
+  public void testGetSubGetterValueWithNull() {
+    path.<PathObject>build().getContext().getName();
+    PathObject task = new PathObject("test");
+
+    assertNull(path.getValue(task));
+    task.setContext(new PathContext().setName("hello"));
+    assertEquals("hello", path.getValue(task));
+  }
+
   @Test
   public void testSetValue() {
     path.<PathObject>build().setName("dummy");
@@ -107,6 +119,14 @@ public class PathTest {
     assertEquals("sauerland", task.getContext().getName());
   }
 
+  @Test(expected = NullPathException.class)
+  public void testSetSubValueOnNull() {
+    path.<PathObject>build().getContext().setName("dummy");
+
+    PathObject task = new PathObject("test");
+    path.setValue(task, "sauerland");
+  }
+
   @Test
   public void testWalk() {
     PathObject task = new PathObject("test");
@@ -133,4 +153,24 @@ public class PathTest {
     propertyPath.setValue(pathObject, "Sauerland");
     assertEquals("Sauerland", pathObject.getName());
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testRecordedPathCache() throws Exception {
+    PropertyPath first = null;
+    for (int i = 0; i < 2; i++) {
+      PropertyPath recorded = PropertyPath.ofTypeSafe(PathObject.class, p -> p.getContext().getName());
+      if (first == null) {
+        first = recorded;
+      } else {
+        assertNotSame(first, recorded);
+        assertEquals(first, recorded);
+      }
+    }
+    assertEquals("context.name", first.getPropertyPath());
+
+    for (String name : new String[]{"getName", "getContext"}) {
+      PropertyPath recorded = PropertyPath.ofTypeSafe(PathObject.class, p -> name.equals("getName") ? p.getName() : p.getContext());
+      assertEquals(name, recorded.getLastMethodName());
+    }
+  }
+}